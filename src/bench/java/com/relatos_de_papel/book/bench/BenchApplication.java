@@ -0,0 +1,93 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.BookApplication;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arranca el servicio sobre H2 en memoria (modo MySQL, como en los tests) con un catálogo sintético,
+ * para los benchmarks que necesitan base de datos, índices o el servidor HTTP.
+ */
+public final class BenchApplication {
+
+    static final String[] WORDS = {"quijote", "sombra", "viento", "ciudad", "perros", "tiempo", "amor", "guerra",
+            "paz", "noche", "casa", "espíritus", "rayuela", "ficciones", "aleph", "pedro", "páramo", "soledad"};
+    static final String[] LANGUAGES = {"es", "en", "fr", "de", "it", "pt"};
+
+    private BenchApplication() {
+    }
+
+    /**
+     * @param books  Número de libros a insertar.
+     * @param web    Si se levanta el servidor HTTP (en un puerto libre, ver {@link #port}).
+     */
+    public static ConfigurableApplicationContext start(int books, boolean web) {
+        return start(books, web, new String[0]);
+    }
+
+    /**
+     * Como {@link #start(int, boolean)}, con propiedades adicionales ("clave=valor") que prevalecen
+     * sobre las de la aplicación.
+     */
+    public static ConfigurableApplicationContext start(int books, boolean web, String... properties) {
+        String[] args = Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.web-application-type=" + (web ? "servlet" : "none"),
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "books.snapshot.enabled=false",
+                        "logging.level.root=WARN")
+                .run(args);
+        BookRepository repository = context.getBean(BookRepository.class);
+        for (int from = 0; from < books; from += 1000) {
+            List<Book> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + 1000, books); i++) {
+                chunk.add(book(i));
+            }
+            repository.insertAll(chunk);
+        }
+        return context;
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    /**
+     * Libro sintético determinista: títulos de dos palabras, descripción de ~300 caracteres,
+     * idiomas, categorías, precios y fechas repartidos, e imágenes con un prefijo común.
+     */
+    public static Book book(int i) {
+        String title = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+        String description = ("Descripción de " + title + ". ").repeat(10);
+        return Book.builder()
+                .title(title)
+                .description(description.substring(0, Math.min(description.length(), 300)))
+                .publicationDate((i % 10 == 0) ? null : LocalDate.of(1900 + i % 125, 1 + i % 12, 1 + i % 28))
+                .language(LANGUAGES[i % LANGUAGES.length])
+                .isbn("978-" + (1_000_000_000L + i))
+                .numberPages(50 + i % 900)
+                .price(BigDecimal.valueOf(500 + (i * 37L) % 5000, 2))
+                .categoryId(1L + i % 20)
+                .authorId(1L + i % 500)
+                .image("https://cdn.relatos.es/portadas/" + i + ".jpg")
+                .reviewScore(i % 6)
+                .status(i % 7 != 0)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.relatos_de_papel.book.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.controller.BookController;
+import com.relatos_de_papel.book.controller.model.BulkImportResult;
+import com.relatos_de_papel.book.controller.model.CreateBookRequest;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación masiva de {@value #ROWS} filas NDJSON nuevas por invocación, sobre H2 en memoria:
+ * lectura fila a fila, validación, deduplicación por ISBN contra el catálogo (que crece en cada
+ * invocación), inserción en batch JDBC y actualización de índices.
+ *
+ * <ul>
+ *   <li>{@code service}: {@link BookService#importBooks} directamente.</li>
+ *   <li>{@code http}: {@code POST /books/bulk}, incluido el resumen por fila de la respuesta.</li>
+ * </ul>
+ *
+ * La puntuación es el tiempo por fila: el objetivo de 20.000 filas/s equivale a 50 us/fila como máximo.
+ * <pre>
+ * mvn -P bench test-compile exec:exec -Djmh.args="BulkImportBenchmark -f 1 -wi 2 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BulkImportBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"service", "http"})
+    public String mode;
+
+    @Param("1000")
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private URI bulkUri;
+
+    // Cada invocación importa libros nuevos: los ISBN continúan donde acabó la anterior
+    private int nextBook;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchApplication.start(0, "http".equals(mode), "books.bulk.batch-size=" + batchSize);
+        bookService = context.getBean(BookService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        if ("http".equals(mode)) {
+            bulkUri = URI.create("http://localhost:" + BenchApplication.port(context) + "/books/bulk");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /** El NDJSON se genera fuera de la medida */
+    @Setup(Level.Invocation)
+    public void prepare() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ROWS * 600);
+        for (int i = nextBook; i < nextBook + ROWS; i++) {
+            out.write(objectMapper.writeValueAsBytes(request(BenchApplication.book(i))));
+            out.write('\n');
+        }
+        nextBook += ROWS;
+        content = out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int importBooks() throws Exception {
+        if ("http".equals(mode)) {
+            HttpRequest request = HttpRequest.newBuilder(bulkUri)
+                    .header("Content-Type", BookController.NDJSON)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(content))
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("POST /books/bulk -> " + response.statusCode());
+            }
+            return created(objectMapper.readValue(response.body(), BulkImportResult.class));
+        }
+        return created(bookService.importBooks(new ByteArrayInputStream(content)));
+    }
+
+    private static int created(BulkImportResult result) {
+        if (result.getCreated() != ROWS) {
+            throw new IllegalStateException("Importadas " + result.getCreated() + " de " + ROWS + ": " + result);
+        }
+        return result.getCreated();
+    }
+
+    private static CreateBookRequest request(Book book) {
+        return CreateBookRequest.builder()
+                .title(book.getTitle())
+                .description(book.getDescription())
+                .publicationDate(book.getPublicationDate())
+                .language(book.getLanguage())
+                .isbn(book.getIsbn())
+                .numberPages(book.getNumberPages())
+                .price(book.getPrice())
+                .categoryId(book.getCategoryId())
+                .authorId(book.getAuthorId())
+                .image(book.getImage())
+                .reviewScore(book.getReviewScore())
+                .status(book.isStatus())
+                .build();
+    }
+}
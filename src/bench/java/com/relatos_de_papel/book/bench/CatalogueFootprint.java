@@ -0,0 +1,78 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.data.index.BookColumnIndex;
+import com.relatos_de_papel.book.data.index.BookFacetIndex;
+import com.relatos_de_papel.book.data.index.BookTextIndex;
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.model.Book;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memoria retenida por el catálogo como {@code List<Book>} frente a {@link CompactCatalogue}
+ * (heap y memoria directa), y la que añade cada índice de búsqueda, medida con JOL. Escribe el resultado en JSON (por defecto en
+ * target/catalogue-footprint.json). Argumentos opcionales: número de libros y fichero de salida.
+ */
+public final class CatalogueFootprint {
+
+    private CatalogueFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int books = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        Path output = Path.of((args.length > 1) ? args[1] : "target/catalogue-footprint.json");
+
+        List<Book> list = books(books);
+        long listBytes = GraphLayout.parseInstance(list).totalSize();
+        CompactCatalogue catalogue = catalogue(list);
+        long compactHeap = GraphLayout.parseInstance(catalogue).totalSize();
+        long compactOffHeap = catalogue.offHeapBytes();
+
+        // Índices de búsqueda: solo lo que añaden sobre el catálogo compacto (al que pueden referenciar)
+        GraphLayout shared = GraphLayout.parseInstance(catalogue);
+        BookTextIndex textIndex = new BookTextIndex(catalogue);
+        BookFacetIndex facetIndex = new BookFacetIndex();
+        BookColumnIndex columnIndex = new BookColumnIndex(catalogue);
+        for (Book book : list) {
+            textIndex.index(book);
+            facetIndex.index(book);
+        }
+        long textHeap = GraphLayout.parseInstance(textIndex).subtract(shared).totalSize();
+        long facetHeap = GraphLayout.parseInstance(facetIndex).subtract(shared).totalSize();
+        long columnHeap = GraphLayout.parseInstance(columnIndex).subtract(shared).totalSize();
+
+        String json = """
+                {"books": %d, "listHeapBytes": %d, "compactHeapBytes": %d, "compactOffHeapBytes": %d, \
+                "textIndexHeapBytes": %d, "facetIndexHeapBytes": %d, "columnIndexHeapBytes": %d}
+                """.formatted(books, listBytes, compactHeap, compactOffHeap, textHeap, facetHeap, columnHeap);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json);
+        System.out.print(json);
+    }
+
+    static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        Instant now = Instant.parse("2025-01-01T10:00:00.123456Z");
+        for (int i = 0; i < count; i++) {
+            Book book = BenchApplication.book(i);
+            book.setId(i + 1L);
+            book.setVersion(0L);
+            book.setLastModified(now);
+            books.add(book);
+        }
+        return books;
+    }
+
+    static CompactCatalogue catalogue(List<Book> books) {
+        CompactCatalogue catalogue = new CompactCatalogue();
+        books.forEach(catalogue::index);
+        catalogue.markReady();
+        return catalogue;
+    }
+}
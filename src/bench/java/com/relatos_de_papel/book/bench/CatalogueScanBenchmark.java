@@ -0,0 +1,62 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido completo del catálogo en memoria: {@code List<Book>} frente a {@link CompactCatalogue}
+ * (flyweight sin materializar libros, y materializando). La memoria ocupada por cada uno se mide
+ * con {@link CatalogueFootprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CatalogueScanBenchmark {
+
+    @Param("100000")
+    public int books;
+
+    private List<Book> list;
+    private CompactCatalogue catalogue;
+
+    @Setup
+    public void setUp() {
+        list = CatalogueFootprint.books(books);
+        catalogue = CatalogueFootprint.catalogue(list);
+    }
+
+    @Benchmark
+    public long listScan() {
+        long sum = 0;
+        for (Book book : list) {
+            sum += book.getPrice().unscaledValue().longValue() + book.getLanguage().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long compactScan() {
+        long[] sum = new long[1];
+        catalogue.forEach(view -> sum[0] += view.getPriceCents() + view.getLanguage().length());
+        return sum[0];
+    }
+
+    @Benchmark
+    public List<Book> compactMaterialize() {
+        List<Book> result = new ArrayList<>(books);
+        catalogue.forEach(view -> result.add(view.toBook()));
+        return result;
+    }
+}
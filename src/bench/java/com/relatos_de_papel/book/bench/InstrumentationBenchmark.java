@@ -0,0 +1,56 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.metrics.QueryCountInspector;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de la instrumentación por llamada: temporizador con histograma (como los de {@code @Timed} y
+ * http.server.requests) y contador de sentencias SQL, frente a la misma llamada sin instrumentar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstrumentationBenchmark {
+
+    private static final String SQL = "select b1_0.id from books b1_0 where b1_0.id=?";
+
+    private Timer timer;
+    private final QueryCountInspector inspector = new QueryCountInspector();
+    private long value;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timer = Timer.builder("books.bench").publishPercentileHistogram().register(registry);
+    }
+
+    @Benchmark
+    public long baseline() {
+        return work();
+    }
+
+    @Benchmark
+    public long timed() {
+        return timer.record(this::work);
+    }
+
+    @Benchmark
+    public String statementInspector() {
+        return inspector.inspect(SQL);
+    }
+
+    private long work() {
+        return value = value * 31 + 7;
+    }
+}
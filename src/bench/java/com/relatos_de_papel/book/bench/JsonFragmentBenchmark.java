@@ -0,0 +1,95 @@
+package com.relatos_de_papel.book.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.config.BeanConfig;
+import com.relatos_de_papel.book.controller.BookJsonHttpMessageConverter;
+import com.relatos_de_papel.book.data.cache.BookJsonCache;
+import com.relatos_de_papel.book.data.model.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura de respuestas JSON (un libro y una página de 50) con el conversor de Jackson frente al de
+ * fragmentos cacheados. Con {@code -prof gc} se ve también la asignación de memoria por respuesta:
+ * mvn -P bench test-compile exec:exec -Djmh.args="JsonFragmentBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonFragmentBenchmark {
+
+    private static final Type BOOK_LIST = new ParameterizedTypeReference<List<Book>>() { }.getType();
+
+    @Param({"jackson", "fragments"})
+    public String converter;
+
+    private GenericHttpMessageConverter<Object> target;
+    private List<Book> page;
+    private final Output output = new Output();
+    private int next;
+
+    /** Respuesta en memoria que se reutiliza entre escrituras */
+    static final class Output implements HttpOutputMessage {
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        Output reset() {
+            body.reset();
+            headers.clear();
+            return this;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new BeanConfig().objectMapper();
+        target = converter.equals("jackson")
+                ? new MappingJackson2HttpMessageConverter(objectMapper)
+                : new BookJsonHttpMessageConverter(new BookJsonCache(objectMapper, new SimpleMeterRegistry(), 10_000), objectMapper);
+        page = CatalogueFootprint.books(50);
+    }
+
+    @Benchmark
+    public int book() throws IOException {
+        Book book = page.get(next++ % page.size());
+        target.write(book, Book.class, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.size();
+    }
+
+    @Benchmark
+    public int page() throws IOException {
+        target.write(page, BOOK_LIST, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.size();
+    }
+}
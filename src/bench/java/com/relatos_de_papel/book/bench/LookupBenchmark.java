@@ -0,0 +1,72 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.config.CacheConfig;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolución de 100 IDs con la caché de libros vacía: uno a uno frente a la lectura por lotes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LookupBenchmark {
+
+    private static final int BOOKS = 5000;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository repository;
+    private Cache cache;
+    private final List<Long> ids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchApplication.start(BOOKS, false);
+        repository = context.getBean(BookRepository.class);
+        cache = context.getBean(CacheManager.class).getCache(CacheConfig.BOOKS_CACHE);
+        for (long id = 1; id <= BOOKS; id += BOOKS / 100) {
+            ids.add(id);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> oneByOne() {
+        List<Book> books = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            books.add(repository.getById(id));
+        }
+        return books;
+    }
+
+    @Benchmark
+    public Map<Long, Book> batch() {
+        return repository.getByIds(ids);
+    }
+}
@@ -0,0 +1,90 @@
+package com.relatos_de_papel.book.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peticiones HTTP completas contra el servicio levantado sobre H2: filtros, conversión, servicio,
+ * índices o base de datos y serialización de la respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoundTripBenchmark {
+
+    private static final int BOOKS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private String baseUrl;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchApplication.start(BOOKS, true);
+        baseUrl = "http://localhost:" + BenchApplication.port(context) + "/books";
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getById() throws Exception {
+        return get("/" + (1 + next++ % BOOKS));
+    }
+
+    @Benchmark
+    public String search() throws Exception {
+        return get("?title=sombra&language=es&minPrice=10&maxPrice=40&limit=50&after=" + (next++ % BOOKS));
+    }
+
+    @Benchmark
+    public String listPage() throws Exception {
+        return get("?limit=50&after=" + (next++ % BOOKS));
+    }
+
+    @Benchmark
+    public String listPageSummary() throws Exception {
+        return get("?view=summary&limit=50&after=" + (next++ % BOOKS));
+    }
+
+    @Benchmark
+    public String patch() throws Exception {
+        next++;
+        String body = "{\"price\": " + (10 + next % 40) + ".5}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + (1 + next % BOOKS)))
+                .header("Content-Type", "application/merge-patch+json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request);
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " -> " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,136 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.data.index.BookColumnIndex;
+import com.relatos_de_papel.book.data.index.BookTextIndex;
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookSearchQueries;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SearchCriteria;
+import com.relatos_de_papel.book.data.utils.SearchOperation;
+import com.relatos_de_papel.book.data.utils.SearchStatement;
+import com.relatos_de_papel.book.data.utils.SortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda: construcción del árbol Criteria ({@link SearchCriteria#toPredicate}) frente a las consultas
+ * compiladas por forma, LIKE en base de datos frente al índice de texto, y rango + orden en base de
+ * datos frente a la proyección columnar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final int PAGE = 50;
+
+    @Param("20000")
+    public int books;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private BookSearchQueries searchQueries;
+    private BookTextIndex textIndex;
+    private BookColumnIndex columnIndex;
+    private CompactCatalogue compactCatalogue;
+
+    private SearchCriteria<Book> filters;
+    private SearchCriteria<Book> titleOnly;
+    private SearchCriteria<Book> priceRange;
+    private BookQuery priceRangeByPrice;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchApplication.start(books, false);
+        entityManager = context.getBean(EntityManager.class);
+        searchQueries = context.getBean(BookSearchQueries.class);
+        textIndex = context.getBean(BookTextIndex.class);
+        columnIndex = context.getBean(BookColumnIndex.class);
+        compactCatalogue = context.getBean(CompactCatalogue.class);
+
+        filters = new SearchCriteria<>();
+        filters.add(new SearchStatement(Consts.TITLE, "Sombra", SearchOperation.MATCH));
+        filters.add(new SearchStatement(Consts.LANGUAGE, "es", SearchOperation.EQUAL));
+        filters.add(new SearchStatement(Consts.PRICE, new BigDecimal("10"), SearchOperation.GREATER_THAN_EQUAL));
+        filters.add(new SearchStatement(Consts.PRICE, new BigDecimal("40"), SearchOperation.LESS_THAN_EQUAL));
+
+        titleOnly = new SearchCriteria<>();
+        titleOnly.add(new SearchStatement(Consts.TITLE, "viento", SearchOperation.MATCH));
+
+        priceRange = new SearchCriteria<>();
+        priceRange.add(new SearchStatement(Consts.PRICE, new BigDecimal("20"), SearchOperation.GREATER_THAN_EQUAL));
+        priceRange.add(new SearchStatement(Consts.PRICE, new BigDecimal("30"), SearchOperation.LESS_THAN_EQUAL));
+        priceRangeByPrice = BookQuery.builder().minPrice(new BigDecimal("20")).maxPrice(new BigDecimal("30"))
+                .sort(Consts.PRICE).limit(PAGE).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /** Solo la construcción del árbol Criteria, sin traducirlo ni ejecutarlo */
+    @Benchmark
+    public CriteriaQuery<Book> criteriaTree() {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = builder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        return query.where(filters.toPredicate(root, query, builder)).orderBy(builder.asc(root.get(Consts.ID)));
+    }
+
+    /** Ruta anterior: árbol Criteria nuevo, traducido por Hibernate y ejecutado */
+    @Benchmark
+    public List<Book> criteriaSearch() {
+        return entityManager.createQuery(criteriaTree()).setMaxResults(PAGE).getResultList();
+    }
+
+    /** Consulta compilada por forma: solo se enlazan valores */
+    @Benchmark
+    public List<Book> compiledSearch() {
+        return searchQueries.findPage(Book.class, filters, SortField.ID, false, null, null, PAGE);
+    }
+
+    @Benchmark
+    public List<Book> titleLike() {
+        return searchQueries.findPage(Book.class, titleOnly, SortField.ID, false, null, null, PAGE);
+    }
+
+    @Benchmark
+    public List<Book> titleTextIndex() {
+        RoaringBitmap matches = textIndex.match(Consts.TITLE, "viento", false);
+        int[] ids = Arrays.copyOf(matches.toArray(), Math.min(PAGE, matches.getCardinality()));
+        return compactCatalogue.toBooks(Arrays.stream(ids).mapToObj(id -> (long) id).toList());
+    }
+
+    @Benchmark
+    public List<Book> priceRangeDatabase() {
+        return searchQueries.findPage(Book.class, priceRange, SortField.PRICE, false, null, null, PAGE);
+    }
+
+    @Benchmark
+    public List<Book> priceRangeColumnar() {
+        long[] ids = columnIndex.query(null, priceRangeByPrice, null, PAGE);
+        return compactCatalogue.toBooks(Arrays.stream(ids).boxed().toList());
+    }
+}
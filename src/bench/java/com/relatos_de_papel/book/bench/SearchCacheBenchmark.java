@@ -0,0 +1,113 @@
+package com.relatos_de_papel.book.bench;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import com.relatos_de_papel.book.data.repository.BookSearchQueries;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SearchCriteria;
+import com.relatos_de_papel.book.data.utils.SearchOperation;
+import com.relatos_de_papel.book.data.utils.SearchStatement;
+import com.relatos_de_papel.book.data.utils.SortField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia (p50/p99, modo SampleTime) de búsquedas repetidas: el tráfico repite unas pocas combinaciones
+ * de filtros, escritas con mayúsculas y espacios distintos.
+ *
+ * <ul>
+ *   <li>{@code database}: la ruta anterior a la caché, criterios con LIKE ejecutados en la base de datos.</li>
+ *   <li>{@code uncached}: {@link BookRepository#search} con la caché de resultados desactivada
+ *       ({@code books.search-cache.maximum-size=0}): cada búsqueda se resuelve en los índices.</li>
+ *   <li>{@code cached}: {@link BookRepository#search} con la caché de resultados por defecto.</li>
+ * </ul>
+ *
+ * Los percentiles quedan en {@code scorePercentiles} del JSON de resultados:
+ * <pre>
+ * mvn -P bench test-compile exec:exec -Djmh.args="SearchCacheBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchCacheBenchmark {
+
+    private static final int PAGE = 50;
+
+    // Combinaciones de filtros repetidas: título, idioma, categoría y estado
+    private static final List<BookQuery> QUERIES = List.of(
+            BookQuery.builder().title("Sombra").limit(PAGE).build(),
+            BookQuery.builder().title("  sombra ").language("ES").limit(PAGE).build(),
+            BookQuery.builder().title("viento").categoryId(3L).limit(PAGE).build(),
+            BookQuery.builder().title("Noche").status(true).limit(PAGE).build(),
+            BookQuery.builder().language("fr").categoryId(7L).limit(PAGE).build(),
+            BookQuery.builder().title("quijote").language("es").categoryId(1L).status(true).limit(PAGE).build(),
+            BookQuery.builder().title("AMOR").limit(PAGE).build(),
+            BookQuery.builder().title("páramo").language("pt").limit(PAGE).build());
+
+    @Param("20000")
+    public int books;
+
+    @Param({"database", "uncached", "cached"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository repository;
+    private BookSearchQueries searchQueries;
+    private List<SearchCriteria<Book>> criteria;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchApplication.start(books, false,
+                "books.search-cache.maximum-size=" + ("cached".equals(mode) ? 2000 : 0));
+        repository = context.getBean(BookRepository.class);
+        searchQueries = context.getBean(BookSearchQueries.class);
+        criteria = QUERIES.stream().map(SearchCacheBenchmark::criteria).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> repeatedSearch() {
+        int query = next++ % QUERIES.size();
+        if ("database".equals(mode)) {
+            return searchQueries.findPage(Book.class, criteria.get(query), SortField.ID, false, null, null, PAGE);
+        }
+        return repository.search(QUERIES.get(query));
+    }
+
+    /** Mismos filtros que construía la búsqueda antes de los índices y la caché */
+    private static SearchCriteria<Book> criteria(BookQuery query) {
+        SearchCriteria<Book> spec = new SearchCriteria<>();
+        if (query.getTitle() != null) {
+            spec.add(new SearchStatement(Consts.TITLE, query.getTitle().trim(), SearchOperation.MATCH));
+        }
+        if (query.getLanguage() != null) {
+            spec.add(new SearchStatement(Consts.LANGUAGE, query.getLanguage().trim(), SearchOperation.EQUAL));
+        }
+        if (query.getCategoryId() != null) {
+            spec.add(new SearchStatement(Consts.FK_ID_CATEGORY, query.getCategoryId(), SearchOperation.EQUAL));
+        }
+        if (query.getStatus() != null) {
+            spec.add(new SearchStatement(Consts.STATUS, query.getStatus(), SearchOperation.EQUAL));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,59 @@
+package com.relatos_de_papel.book.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.config.BeanConfig;
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.data.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de listas de libros (1, 100 y 10 000) con el ObjectMapper del servicio,
+ * completos y en la vista reducida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new BeanConfig().objectMapper();
+    private List<Book> books;
+    private List<BookSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = BenchApplication.book(i);
+            book.setId(i + 1L);
+            book.setVersion(3L);
+            book.setLastModified(Instant.parse("2025-01-01T10:00:00.123456Z"));
+            books.add(book);
+        }
+        summaries = books.stream().map(BookSummary::of).toList();
+    }
+
+    @Benchmark
+    public byte[] books() throws Exception {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,118 @@
+package com.relatos_de_papel.book.bench;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
+import com.relatos_de_papel.book.controller.model.BookDto;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.service.BookMergePatch;
+import com.relatos_de_papel.book.service.BookService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PATCH / PUT de un libro: el parche en memoria (ruta anterior con árboles JSON y json-patch frente a
+ * {@link BookMergePatch}) y {@code BookServiceImpl.updateBook} completo (merge patch y DTO) contra H2.
+ * Con {@code -prof gc} se obtienen además las asignaciones por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UpdateBenchmark {
+
+    private static final String PATCH = "{\"price\": 19.95, \"reviewScore\": 4, \"description\": null}";
+    private static final int BOOKS = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final byte[] patch = PATCH.getBytes(StandardCharsets.UTF_8);
+    private final Book book = BenchApplication.book(1);
+
+    /** Servicio sobre H2, solo para las variantes que pasan por base de datos */
+    @State(Scope.Benchmark)
+    public static class Service {
+
+        private ConfigurableApplicationContext context;
+        private BookService bookService;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchApplication.start(BOOKS, false);
+            bookService = context.getBean(BookService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        // Precio distinto en cada llamada para que siempre haya un UPDATE
+        private BigDecimal price() {
+            return BigDecimal.valueOf(1000 + next % 5000, 2);
+        }
+
+        private String nextId() {
+            next++;
+            return String.valueOf(1 + next % BOOKS);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        book.setId(1L);
+    }
+
+    /** Ruta anterior: JsonNode del parche y del libro, JsonMergePatch y vuelta a Book */
+    @Benchmark
+    public Book jsonMergePatchTree() throws Exception {
+        JsonMergePatch mergePatch = JsonMergePatch.fromJson(objectMapper.readTree(patch));
+        JsonNode existing = objectMapper.valueToTree(book);
+        JsonNode patched = mergePatch.apply(existing);
+        return objectMapper.treeToValue(patched, Book.class);
+    }
+
+    /** Lectura en streaming validando campo a campo y copia sobre el libro */
+    @Benchmark
+    public Book streamingMergePatch() throws Exception {
+        // Libro nuevo, como el que devuelve treeToValue en la ruta anterior
+        Book copy = BenchApplication.book(1);
+        copy.setId(1L);
+        try (JsonParser parser = objectMapper.createParser(patch)) {
+            BookMergePatch.read(parser, copy.getId(), validator).applyTo(copy);
+        }
+        return copy;
+    }
+
+    /** PATCH completo en el servicio: parche, transacción, UPDATE de las columnas modificadas y eventos */
+    @Benchmark
+    public Book serviceMergePatch(Service service) {
+        String id = service.nextId();
+        String body = "{\"price\": " + service.price() + ", \"reviewScore\": " + (service.next % 6) + "}";
+        return service.bookService.updateBook(id, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    /** PUT completo en el servicio con el DTO */
+    @Benchmark
+    public Book serviceDto(Service service) {
+        String id = service.nextId();
+        BookDto dto = BookDto.builder().price(service.price()).reviewScore(service.next % 6).build();
+        return service.bookService.updateBook(id, dto, null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.relatos_de_papel.book.bench;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.config.BeanConfig;
+import com.relatos_de_papel.book.data.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Formatos de respuesta de {@code List<Book>} (100 y 10 000 libros): JSON con el ObjectMapper sin
+ * configurar frente al de BeanConfig, Smile y CBOR; escritura (con y sin gzip) y lectura.
+ * El tamaño de cada formato lo mide {@link WireFormatSizes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"json-plain", "json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private List<Book> books;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, Book.class);
+        books = CatalogueFootprint.books(size);
+        encoded = mapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return mapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] writeGzip() throws IOException {
+        return gzip(mapper, books);
+    }
+
+    @Benchmark
+    public List<Book> read() throws IOException {
+        return mapper.readValue(encoded, listType);
+    }
+
+    static ObjectMapper mapper(String format) {
+        BeanConfig config = new BeanConfig();
+        return switch (format) {
+            case "json-plain" -> new ObjectMapper();
+            case "json" -> config.objectMapper();
+            case "smile" -> config.smileHttpMessageConverter().getObjectMapper();
+            case "cbor" -> config.cborHttpMessageConverter().getObjectMapper();
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+
+    static byte[] gzip(ObjectMapper mapper, Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(out, value);
+        }
+        return bytes.toByteArray();
+    }
+}
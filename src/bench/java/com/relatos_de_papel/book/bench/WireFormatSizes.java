@@ -0,0 +1,43 @@
+package com.relatos_de_papel.book.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.data.model.Book;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Tamaño en bytes de {@code List<Book>} (100 y 10 000 libros) en cada formato de {@link WireFormatBenchmark},
+ * sin comprimir y con gzip. Escribe el resultado en JSON (por defecto en target/wire-format-sizes.json).
+ * Argumento opcional: fichero de salida.
+ */
+public final class WireFormatSizes {
+
+    private static final int[] SIZES = {100, 10_000};
+    private static final String[] FORMATS = {"json-plain", "json", "smile", "cbor"};
+
+    private WireFormatSizes() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of((args.length > 0) ? args[0] : "target/wire-format-sizes.json");
+
+        StringJoiner rows = new StringJoiner(",\n  ", "[\n  ", "\n]\n");
+        for (int size : SIZES) {
+            List<Book> books = CatalogueFootprint.books(size);
+            for (String format : FORMATS) {
+                ObjectMapper mapper = WireFormatBenchmark.mapper(format);
+                rows.add("{\"books\": %d, \"format\": \"%s\", \"bytes\": %d, \"gzipBytes\": %d}".formatted(
+                        size, format, mapper.writeValueAsBytes(books).length,
+                        WireFormatBenchmark.gzip(mapper, books).length));
+            }
+        }
+        String json = rows.toString();
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json);
+        System.out.print(json);
+    }
+}
@@ -0,0 +1,16 @@
+package com.relatos_de_papel.book.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita las cachés en memoria (Caffeine). Tamaño, TTL y estadísticas se configuran en application.yml
+ * (spring.cache.caffeine.spec) y las métricas se publican en /actuator/metrics/cache.*.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Caché de libros individuales por ID */
+    public static final String BOOKS_CACHE = "books";
+}
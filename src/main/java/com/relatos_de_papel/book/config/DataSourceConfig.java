@@ -0,0 +1,97 @@
+package com.relatos_de_papel.book.config;
+
+import com.relatos_de_papel.book.data.routing.ReadWriteRoutingDataSource;
+import com.relatos_de_papel.book.data.routing.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Origen de datos con réplicas de lectura: el primario se configura como siempre (spring.datasource)
+ * y las réplicas en {@code books.datasource.replicas}, con los mismos ajustes de pool que el primario.
+ * Sin réplicas todo va al primario.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceConfig.RoutingProperties.class)
+public class DataSourceConfig {
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("books.datasource")
+    public static class RoutingProperties {
+
+        private List<Replica> replicas = new ArrayList<>();
+        /** Cada cuánto se comprueban las réplicas (las caídas vuelven a usarse cuando responden) */
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        @Getter
+        @Setter
+        public static class Replica {
+            private String url;
+            private String username;
+            private String password;
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                        RoutingProperties properties,
+                                                        ReadYourWrites readYourWrites,
+                                                        MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (RoutingProperties.Replica replica : properties.getReplicas()) {
+            replicas.add(replicaPool(primaryDataSource, replica, replicas.size()));
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicas, readYourWrites);
+        routing.startHealthChecks(properties.getHealthCheckInterval());
+        Gauge.builder("books.datasource.replicas.healthy", routing, ReadWriteRoutingDataSource::healthyReplicas)
+                .description("Réplicas de lectura en servicio")
+                .register(meterRegistry);
+        return routing;
+    }
+
+    /**
+     * Origen de datos que usan JPA y JDBC: la conexión real se pide en la primera sentencia, cuando
+     * ya se sabe si la transacción es de solo lectura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource replicaPool(HikariDataSource primary, RoutingProperties.Replica replica, int index) {
+        HikariDataSource pool = new HikariDataSource();
+        primary.copyStateTo(pool);
+        pool.setPoolName("books-replica-" + index);
+        pool.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+        }
+        pool.setReadOnly(true);
+        // Se arranca aunque la réplica no responda: la comprobación periódica la pondrá en servicio
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+}
@@ -0,0 +1,133 @@
+package com.relatos_de_papel.book.controller;
+
+import com.relatos_de_papel.book.controller.model.BookChange;
+import com.relatos_de_papel.book.service.BookChangeFeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flujo de cambios del catálogo (altas, modificaciones y bajas) para otros microservicios,
+ * con offsets reanudables: long-poll en {@code GET /books/changes} y SSE en {@code GET /books/changes/stream}.
+ */
+@RestController
+@RequestMapping("/books/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class BookChangeController {
+
+    private final BookChangeFeed changeFeed;
+
+    @Value("${books.changes.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${books.changes.max-wait:60s}")
+    private Duration maxWait;
+
+    @Value("${books.changes.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    /**
+     * Cambios posteriores al offset {@code after}. Si no hay ninguno y se indica {@code wait} (segundos),
+     * la petición espera hasta que llegue alguno o se agote el tiempo (lista vacía).
+     * La cabecera X-Next-Cursor indica el {@code after} de la siguiente llamada.
+     */
+    @GetMapping
+    public DeferredResult<ResponseEntity<List<BookChange>>> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long wait) {
+
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+        long timeout = Math.min(Duration.ofSeconds(Math.max(wait, 0)).toMillis(), maxWait.toMillis());
+        DeferredResult<ResponseEntity<List<BookChange>>> result =
+                new DeferredResult<>(timeout, page(after, Collections.emptyList()));
+
+        List<BookChange> changes = changeFeed.read(after, pageSize);
+        if (!changes.isEmpty() || timeout == 0) {
+            result.setResult(page(after, changes));
+            return result;
+        }
+
+        // Sin cambios: se espera al siguiente (una sola entrega)
+        BookChangeFeed.Subscriber waiter = new BookChangeFeed.Subscriber() {
+            @Override
+            public long cursor() {
+                return after;
+            }
+
+            @Override
+            public boolean deliver(List<BookChange> delivered) {
+                result.setResult(page(after, delivered.size() > pageSize ? delivered.subList(0, pageSize) : delivered));
+                return false;
+            }
+        };
+        result.onCompletion(() -> changeFeed.unsubscribe(waiter));
+        changeFeed.subscribe(waiter);
+        return result;
+    }
+
+    /**
+     * Server-Sent Events: envía los cambios posteriores a {@code after} (o a la cabecera Last-Event-ID
+     * al reconectar) y después cada cambio nuevo. El ID de cada evento es su offset.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long after,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        long start = (lastEventId != null) ? lastEventId : after;
+        log.info("Nuevo suscriptor SSE de cambios desde el offset {}", start);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        BookChangeFeed.Subscriber subscriber = new BookChangeFeed.Subscriber() {
+            private volatile long cursor = start;
+
+            @Override
+            public long cursor() {
+                return cursor;
+            }
+
+            @Override
+            public boolean deliver(List<BookChange> changes) {
+                try {
+                    for (BookChange change : changes) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.offset()))
+                                .name(change.type().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                        cursor = change.offset();
+                    }
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado o emisor ya completado
+                    return false;
+                }
+            }
+        };
+        emitter.onCompletion(() -> changeFeed.unsubscribe(subscriber));
+        emitter.onTimeout(() -> changeFeed.unsubscribe(subscriber));
+        emitter.onError(e -> changeFeed.unsubscribe(subscriber));
+        changeFeed.subscribe(subscriber);
+        return emitter;
+    }
+
+    private static ResponseEntity<List<BookChange>> page(long after, List<BookChange> changes) {
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).offset();
+        return ResponseEntity.ok()
+                .header(BookController.NEXT_CURSOR_HEADER, String.valueOf(next))
+                .body(changes);
+    }
+}
@@ -1,17 +1,42 @@
 package com.relatos_de_papel.book.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.relatos_de_papel.book.controller.model.BookDto;
+import com.relatos_de_papel.book.controller.model.BookLookup;
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.controller.model.BulkDeleteRequest;
+import com.relatos_de_papel.book.controller.model.BulkImportResult;
+import com.relatos_de_papel.book.controller.model.BulkMutationResult;
+import com.relatos_de_papel.book.controller.model.BulkUpdateRequest;
 import com.relatos_de_papel.book.controller.model.CreateBookRequest;
+import com.relatos_de_papel.book.data.index.BookRankingIndex;
 import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.SortField;
 import com.relatos_de_papel.book.service.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * REST Controller para exponer operaciones CRUD de Book.
@@ -22,31 +47,175 @@ import java.util.List;
 @Slf4j
 public class BookController {
 
+    /** Cabecera con el cursor (ID) a enviar en {@code after} para pedir la siguiente página */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    // El mismo recurso se sirve en JSON, Smile o CBOR y con o sin gzip: las cachés deben distinguirlos
+    private static final String[] VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+
     private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${books.pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${books.pagination.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${books.batch.max-ids:1000}")
+    private int maxBatchIds;
+
+    @Value("${books.rankings.default-limit:10}")
+    private int defaultTopLimit;
 
+    @Value("${books.rankings.max-limit:100}")
+    private int maxTopLimit;
+
+    /**
+     * Búsqueda paginada: filtros (title, language, categoryId, status), rangos (minPrice/maxPrice,
+     * minPages/maxPages, minReviewScore/maxReviewScore, publishedFrom/publishedTo), orden
+     * (sort, direction) y cursor (after, limit).
+     * El ETag (débil) deriva de la versión del catálogo: con {@code If-None-Match} vigente se responde 304
+     * sin ejecutar la búsqueda.
+     */
     @GetMapping
-    public ResponseEntity<List<Book>> getAll(
+    public ResponseEntity<List<Book>> getAll(@Valid BookQuery query, WebRequest request) {
+        return search(query, request, bookService::getBooks, Book::getId);
+    }
+
+    /**
+     * La misma búsqueda con {@code view=summary}: cada libro se devuelve reducido a id, title, price,
+     * image y status.
+     */
+    @GetMapping(params = "view=" + BookQuery.VIEW_SUMMARY)
+    public ResponseEntity<List<BookSummary>> getSummaries(@Valid BookQuery query, WebRequest request) {
+        return search(query, request, bookService::getBookSummaries, BookSummary::id);
+    }
+
+    private <T> ResponseEntity<List<T>> search(BookQuery query, WebRequest request,
+                                               Function<BookQuery, List<T>> search, Function<T, Long> id) {
+
+        log.info("Buscando libros con filtros: {}", query);
+
+        Integer limit = query.getLimit();
+        int pageSize = (limit == null || limit < 1) ? defaultLimit : Math.min(limit, maxLimit);
+        query.setLimit(pageSize);
+
+        // La versión se lee antes de buscar: una escritura concurrente solo puede dejar un ETag más antiguo.
+        // Y no al revés: la versión sube después de actualizar índices y cachés (BookChangedEvent.VERSION_ORDER)
+        String eTag = bookService.getBooksETag(query);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(VARY).build();
+        }
+        return page(search.apply(query), pageSize, eTag, id);
+    }
+
+    private static <T> ResponseEntity<List<T>> page(List<T> result, int pageSize, String eTag, Function<T, Long> id) {
+        if (result == null) {
+            return ResponseEntity.ok().eTag(eTag).varyBy(VARY).body(Collections.emptyList());
+        }
+
+        // Página llena: puede haber más resultados a partir del último ID devuelto
+        if (result.size() == pageSize) {
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .varyBy(VARY)
+                    .header(NEXT_CURSOR_HEADER, String.valueOf(id.apply(result.get(result.size() - 1))))
+                    .body(result);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(VARY).body(result);
+    }
+
+    /**
+     * Recuentos por valor de idioma, categoría y estado para los filtros indicados
+     * (p. ej. para mostrar "Español (1 234)" en la interfaz).
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Map<String, Long>>> getFacets(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String language,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Boolean status) {
 
-        log.info("Buscando libros con filtros: title={}, language={}, categoryId={}, status={}",
-                title, language, categoryId, status);
+        Map<String, Map<String, Long>> facets = bookService.getFacets(title, language, categoryId, status);
+        return (facets != null) ? ResponseEntity.ok(facets) : ResponseEntity.status(503).build();
+    }
 
-        List<Book> result = bookService.getBooks(title, language, categoryId, status);
-        if (result != null) {
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.ok(Collections.emptyList());
+    /**
+     * Ranking de los libros activos mejor puntuados de una categoría o de un idioma (uno de los dos).
+     * A igual puntuación desempata {@code then}: price (más barato primero, por defecto) o publicationDate
+     * (más reciente primero). Se sirve de los rankings en memoria, sin ordenar por petición.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<Book>> getTop(@RequestParam(required = false) Long categoryId,
+                                             @RequestParam(required = false) String language,
+                                             @RequestParam(defaultValue = "price") String then,
+                                             @RequestParam(required = false) Integer limit) {
+        if ((categoryId == null) == !StringUtils.hasText(language)
+                || !BookRankingIndex.TIEBREAKS.contains(SortField.fromProperty(then))
+                || (limit != null && (limit < 1 || limit > maxTopLimit))) {
+            return ResponseEntity.badRequest().build();
         }
+        List<Book> top = bookService.getTopBooks(categoryId, language, then, (limit != null) ? limit : defaultTopLimit);
+        return (top != null) ? ResponseEntity.ok(top) : ResponseEntity.status(503).build();
     }
 
+    /**
+     * Exporta el catálogo completo como NDJSON (un libro por línea) en streaming,
+     * con memoria constante independientemente del tamaño de la tabla.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.info("Exportando el catálogo completo en NDJSON");
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writerFor(Book.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                bookService.exportBooks(book -> {
+                    try {
+                        writer.write(book);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().body(body);
+    }
+
+    /**
+     * Devuelve un libro con ETag (versión) y Last-Modified. Spring compara If-None-Match /
+     * If-Modified-Since con esas cabeceras y responde 304 sin serializar el cuerpo.
+     * El ETag es débil: Tomcat no comprime respuestas con un ETag fuerte (cambiaría los bytes).
+     */
     @GetMapping("/{id}")
     public ResponseEntity<Book> getById(@PathVariable("id") String id) {
         log.info("Buscando libro con ID {}", id);
         Book b = bookService.getBook(id);
-        return (b != null) ? ResponseEntity.ok(b) : ResponseEntity.notFound().build();
+        if (b == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag(b)).varyBy(VARY);
+        if (b.getLastModified() != null) {
+            response.lastModified(b.getLastModified());
+        }
+        return response.body(b);
+    }
+
+    /**
+     * Lectura por lotes: resuelve una lista de IDs en una sola llamada, devolviendo los resultados
+     * en el mismo orden con una marca de no encontrado para los que no existen.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookLookup>> getBatch(@RequestBody List<Long> ids) {
+        if (ids == null || ids.size() > maxBatchIds || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Buscando {} libros por lote", ids.size());
+        return ResponseEntity.ok(bookService.getBooks(ids));
     }
 
     @DeleteMapping("/{id}")
@@ -64,21 +233,93 @@ public class BookController {
                 : ResponseEntity.badRequest().build();
     }
 
-    @PatchMapping("/{id}")
+    /**
+     * Importación masiva: array JSON o NDJSON de libros. Devuelve el resultado de cada fila.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkImportResult> bulkImport(InputStream body) {
+        try {
+            return ResponseEntity.ok(bookService.importBooks(body));
+        } catch (IOException e) {
+            log.error("Error leyendo la importación masiva: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Modificación masiva: aplica los cambios a todos los libros que cumplen el filtro o a los IDs indicados.
+     */
+    @PatchMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkMutationResult> bulkUpdate(@RequestBody @Valid BulkUpdateRequest request) {
+        BulkMutationResult result = bookService.updateBooks(request);
+        return (result != null) ? ResponseEntity.ok(result) : ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Borrado masivo de los libros que cumplen el filtro o de los IDs indicados.
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkMutationResult> bulkDelete(@RequestBody @Valid BulkDeleteRequest request) {
+        BulkMutationResult result = bookService.removeBooks(request);
+        return (result != null) ? ResponseEntity.ok(result) : ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Actualización parcial (JSON Merge Patch). Con {@code If-Match} solo se aplica si el ETag coincide.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MERGE_PATCH_JSON})
     public ResponseEntity<Book> patch(@PathVariable("id") String id,
-                                      @RequestBody String patchBody) {
-        Book patched = bookService.updateBook(id, patchBody);
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                      InputStream patchBody) {
+        Book patched = bookService.updateBook(id, patchBody, expectedVersion(ifMatch));
         return (patched != null)
-                ? ResponseEntity.ok(patched)
+                ? ResponseEntity.ok().eTag(eTag(patched)).body(patched)
                 : ResponseEntity.badRequest().build();
     }
 
+    /**
+     * Actualización con los campos no nulos del DTO. Con {@code If-Match} solo se aplica si el ETag coincide.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Book> update(@PathVariable("id") String id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                        @RequestBody BookDto dto) {
-        Book updated = bookService.updateBook(id, dto);
+        Book updated = bookService.updateBook(id, dto, expectedVersion(ifMatch));
         return (updated != null)
-                ? ResponseEntity.ok(updated)
+                ? ResponseEntity.ok().eTag(eTag(updated)).body(updated)
                 : ResponseEntity.notFound().build();
     }
+
+    /**
+     * El libro cambió desde que el cliente lo leyó (If-Match no coincide o escritura concurrente).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleVersionConflict(OptimisticLockingFailureException e) {
+        log.warn("Conflicto de versión: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    private static String eTag(Book book) {
+        return "W/\"" + book.getVersion() + "\"";
+    }
+
+    /**
+     * Extrae la versión de la cabecera If-Match ({@code "3"} o {@code W/"3"}); null si no hay o es {@code *}.
+     * Un valor que no es una versión nunca coincidirá.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (!StringUtils.hasText(ifMatch) || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package com.relatos_de_papel.book.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.data.cache.BookJsonCache;
+import com.relatos_de_papel.book.data.model.Book;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Escribe en JSON los libros y las listas de libros a partir de los bytes de {@link BookJsonCache}:
+ * un libro se copia tal cual y una lista se compone concatenando los fragmentos, sin pasar por Jackson.
+ * Solo acepta listas declaradas como {@code List<Book>}; el resto (p. ej. la vista reducida) sigue en el
+ * conversor de Jackson, igual que la lectura ({@code canRead} es siempre false) y los formatos binarios.
+ */
+@Component
+public class BookJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] OPEN = {'['};
+    private static final byte[] SEPARATOR = {','};
+    private static final byte[] CLOSE = {']'};
+
+    private final BookJsonCache jsonCache;
+
+    // Solo si alguien llama a read() sin preguntar antes por canRead(): lee como lo haría Jackson
+    private final MappingJackson2HttpMessageConverter reader;
+
+    public BookJsonHttpMessageConverter(BookJsonCache jsonCache, ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonCache = jsonCache;
+        this.reader = new MappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Book.class.isAssignableFrom(clazz) || List.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Un libro, o una lista cuyo tipo de elemento declarado es Book.
+     */
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = (type != null) ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        Class<?> raw = resolved.resolve(clazz);
+        if (Book.class.isAssignableFrom(raw)) {
+            return true;
+        }
+        if (!List.class.isAssignableFrom(raw) || !List.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        Class<?> element = resolved.as(List.class).getGeneric(0).resolve();
+        return element != null && Book.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(null, clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (value instanceof Book book) {
+            out.write(jsonCache.get(book));
+            return;
+        }
+        List<?> list = (List<?>) value;
+        out.write(OPEN);
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                out.write(SEPARATOR);
+            }
+            out.write(jsonCache.get((Book) list.get(i)));
+        }
+        out.write(CLOSE);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return reader.read(type, contextClass, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return reader.read(clazz, inputMessage);
+    }
+}
@@ -0,0 +1,28 @@
+package com.relatos_de_papel.book.controller.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.model.BookOutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * Cambio del catálogo tal como se publica a los consumidores.
+ * @param offset      Posición en el flujo; se envía como {@code after} (o Last-Event-ID) para continuar.
+ * @param version     Versión del libro tras el cambio (null si se eliminó).
+ * @param book        Libro tras el cambio, tal como se guardó en el outbox (null si se eliminó).
+ */
+public record BookChange(long offset,
+                         BookChangedEvent.Type type,
+                         Long bookId,
+                         Long version,
+                         @JsonSerialize(using = ToStringSerializer.class) Instant occurredAt,
+                         @JsonRawValue String book) {
+
+    public static BookChange of(BookOutboxEvent event) {
+        return new BookChange(event.getId(), event.getType(), event.getBookId(), event.getBookVersion(),
+                event.getCreatedAt(), event.getPayload());
+    }
+}
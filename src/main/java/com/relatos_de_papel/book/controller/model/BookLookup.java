@@ -0,0 +1,21 @@
+package com.relatos_de_papel.book.controller.model;
+
+import com.relatos_de_papel.book.data.model.Book;
+import lombok.*;
+
+/**
+ * Resultado de un ID dentro de una lectura por lotes: el libro, o una marca de no encontrado.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BookLookup {
+
+    private Long id;
+    private boolean found;
+    /** Libro encontrado, o null si no existe */
+    private Book book;
+}
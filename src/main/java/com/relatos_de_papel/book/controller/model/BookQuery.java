@@ -0,0 +1,88 @@
+package com.relatos_de_papel.book.controller.model;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Parámetros de búsqueda de GET /books: filtros, rangos, orden y paginación por keyset.
+ * Todos son opcionales; los que llegan a null no se aplican.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BookQuery {
+
+    public static final String VIEW_SUMMARY = "summary";
+
+    // --- Filtros de texto e igualdad ---
+    private String title;
+    private String language;
+    private Long categoryId;
+    private Boolean status;
+
+    // --- Rangos (ambos extremos incluidos) ---
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minPages;
+    private Integer maxPages;
+    private Integer minReviewScore;
+    private Integer maxReviewScore;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedTo;
+
+    // --- Orden: campo y dirección (por defecto id, asc) ---
+    @Pattern(regexp = "id|price|numberPages|reviewScore|publicationDate")
+    private String sort;
+    @Pattern(regexp = "(?i)asc|desc")
+    private String direction;
+
+    // --- Paginación: ID del último libro recibido y tamaño de página ---
+    @PositiveOrZero
+    private Long after;
+    private Integer limit;
+
+    // --- Vista: full (entidad completa, por defecto) o summary (id, title, price, image, status) ---
+    @Pattern(regexp = "full|summary")
+    private String view;
+
+    public boolean isSummary() {
+        return VIEW_SUMMARY.equals(view);
+    }
+
+    public boolean isDescending() {
+        return "desc".equalsIgnoreCase(direction);
+    }
+
+    /** Indica si hay filtros de igualdad o texto. */
+    public boolean hasFilters() {
+        return (title != null && !title.isEmpty())
+                || (language != null && !language.isEmpty())
+                || categoryId != null
+                || status != null;
+    }
+
+    /** Indica si hay algún rango. */
+    public boolean hasRanges() {
+        return minPrice != null || maxPrice != null
+                || minPages != null || maxPages != null
+                || minReviewScore != null || maxReviewScore != null
+                || publishedFrom != null || publishedTo != null;
+    }
+
+    /** Indica si hay algún rango o un orden distinto del ID ascendente. */
+    public boolean hasRangesOrSort() {
+        return hasRanges()
+                || (sort != null && !"id".equals(sort))
+                || isDescending();
+    }
+}
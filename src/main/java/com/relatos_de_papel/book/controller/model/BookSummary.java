@@ -0,0 +1,17 @@
+package com.relatos_de_papel.book.controller.model;
+
+import com.relatos_de_papel.book.data.model.Book;
+
+import java.math.BigDecimal;
+
+/**
+ * Vista reducida de un libro para listados y carrito ({@code view=summary}): sin descripción
+ * ni el resto de campos de detalle. Se construye directamente en la consulta (JPQL con
+ * {@code select new}), sin instanciar ni gestionar la entidad.
+ */
+public record BookSummary(Long id, String title, BigDecimal price, String image, boolean status) {
+
+    public static BookSummary of(Book book) {
+        return new BookSummary(book.getId(), book.getTitle(), book.getPrice(), book.getImage(), book.isStatus());
+    }
+}
@@ -0,0 +1,23 @@
+package com.relatos_de_papel.book.controller.model;
+
+import jakarta.validation.Valid;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Borrado masivo (POST /books/bulk/delete): los libros que cumplen el filtro o los de la lista de IDs.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BulkDeleteRequest {
+
+    /** Filtros y rangos de la búsqueda (orden, paginación y vista se ignoran). Alternativa a {@code ids} */
+    @Valid
+    private BookQuery filter;
+    private List<Long> ids;
+}
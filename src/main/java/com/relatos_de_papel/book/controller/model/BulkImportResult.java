@@ -0,0 +1,30 @@
+package com.relatos_de_papel.book.controller.model;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva, con el detalle de cada fila.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class BulkImportResult {
+
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<BulkImportRow> rows = new ArrayList<>();
+
+    public void add(BulkImportRow row) {
+        rows.add(row);
+        switch (row.getStatus()) {
+            case CREATED -> created++;
+            case DUPLICATE -> duplicates++;
+            case INVALID -> invalid++;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.relatos_de_papel.book.controller.model;
+
+import lombok.*;
+
+/**
+ * Resultado de una fila de una importación masiva.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BulkImportRow {
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    /** Posición de la fila en la entrada (empezando en 0) */
+    private int index;
+    private Status status;
+    /** ID asignado, solo si se creó */
+    private Long id;
+    /** Motivo del rechazo, solo si no se creó */
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.relatos_de_papel.book.controller.model;
+
+import lombok.*;
+
+/**
+ * Resultado de una modificación o borrado masivo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BulkMutationResult {
+
+    /** Filas modificadas o borradas */
+    private int affected;
+}
@@ -0,0 +1,36 @@
+package com.relatos_de_papel.book.controller.model;
+
+import jakarta.validation.Valid;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Modificación masiva (PATCH /books/bulk): los libros que cumplen el filtro, o los de la lista de IDs,
+ * reciben los cambios indicados. Los campos de cambio a null no se modifican.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BulkUpdateRequest {
+
+    /** Filtros y rangos de la búsqueda (orden, paginación y vista se ignoran). Alternativa a {@code ids} */
+    @Valid
+    private BookQuery filter;
+    private List<Long> ids;
+
+    // --- Cambios (al menos uno) ---
+    private Boolean status;
+    private Long categoryId;
+    private BigDecimal price;
+    /** Multiplica el precio actual (p. ej. 0.9 para un 10 % de descuento), redondeado a céntimos */
+    private BigDecimal priceFactor;
+
+    public boolean hasChanges() {
+        return status != null || categoryId != null || price != null || priceFactor != null;
+    }
+}
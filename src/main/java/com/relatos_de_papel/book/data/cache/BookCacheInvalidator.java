@@ -0,0 +1,87 @@
+package com.relatos_de_papel.book.data.cache;
+
+import com.relatos_de_papel.book.config.CacheConfig;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.model.Book;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Saca de la caché de libros los IDs afectados por cada escritura confirmada, incluidas las que no pasan
+ * por {@code BookRepository.save/delete} (importaciones y operaciones masivas). Así tampoco sobreviven
+ * entradas negativas (IDs consultados antes de existir).
+ *
+ * Las lecturas rellenan la caché a través de {@link #fill}: cada invalidación sube una generación por
+ * bloque de IDs, y un libro leído antes de una invalidación no se guarda (o se retira si se guardó a la vez).
+ * Sin esto, un lector que leyó la fila anterior podía guardarla justo después de la invalidación y
+ * servirla hasta que caducara.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCacheInvalidator {
+
+    // Generaciones por bloque de IDs (potencia de 2): dos IDs del mismo bloque solo comparten falsos positivos
+    private static final int STRIPES = 4096;
+
+    private final CacheManager cacheManager;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    /**
+     * Generación actual del ID. Debe leerse ANTES de consultar la base de datos y pasarse a {@link #fill}.
+     */
+    public long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * Guarda en la caché el libro leído (null si no existe, como entrada negativa) salvo que el ID se haya
+     * invalidado desde {@code generation}. Se comprueba también después de guardar: si la invalidación
+     * llegó entre la comprobación y el guardado, la entrada se retira.
+     */
+    public void fill(Long id, Book book, long generation) {
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        int stripe = stripe(id);
+        if (cache == null || generations.get(stripe) != generation) {
+            return;
+        }
+        cache.put(id, book);
+        if (generations.get(stripe) != generation) {
+            cache.evict(id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.CACHE_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        invalidate(event.getBookId());
+    }
+
+    // Las altas también: la caché puede guardar el ID como inexistente (entrada negativa)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.CACHE_ORDER)
+    public void onBooksCreated(BooksCreatedEvent event) {
+        event.getBooks().forEach(book -> invalidate(book.getId()));
+    }
+
+    /**
+     * Invalida el ID: sube su generación (los rellenos en curso se descartan) y lo saca de la caché.
+     */
+    public void invalidate(Long id) {
+        generations.incrementAndGet(stripe(id));
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.relatos_de_papel.book.data.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.model.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+
+/**
+ * JSON ya serializado de los libros más leídos: por ID guarda los bytes junto con la versión del libro
+ * de la que salieron. Una versión distinta se vuelve a serializar, y cada escritura confirmada saca el
+ * libro de la caché. Los bytes son los mismos que produciría el ObjectMapper y no deben modificarse.
+ */
+@Component
+public class BookJsonCache {
+
+    private record Entry(long version, byte[] json) {
+    }
+
+    private final Cache<Long, Entry> cache;
+    private final ObjectWriter writer;
+
+    public BookJsonCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${books.json-cache.maximum-size:10000}") long maximumSize) {
+        this.writer = objectMapper.writerFor(Book.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        // Mismas etiquetas que las cachés de Spring: Prometheus rechaza un mismo nombre con otras etiquetas
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "books-json",
+                "cache.manager", "bookJsonCache", "name", "books-json");
+    }
+
+    /**
+     * JSON del libro indicado, de la caché si corresponde a su versión.
+     */
+    public byte[] get(Book book) throws IOException {
+        Long id = book.getId();
+        Long version = book.getVersion();
+        if (id == null || version == null) {
+            return writer.writeValueAsBytes(book);
+        }
+        Entry entry = cache.getIfPresent(id);
+        if (entry != null && entry.version() == version) {
+            return entry.json();
+        }
+        byte[] json = writer.writeValueAsBytes(book);
+        // Un lector con una copia antigua no sustituye a una versión más reciente
+        if (entry == null || entry.version() < version) {
+            cache.put(id, new Entry(version, json));
+        }
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.CACHE_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        cache.invalidate(event.getBookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.CACHE_ORDER)
+    public void onBooksCreated(BooksCreatedEvent event) {
+        cache.invalidateAll(event.getBooks().stream().map(Book::getId).toList());
+    }
+}
@@ -0,0 +1,54 @@
+package com.relatos_de_papel.book.data.cache;
+
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versión del catálogo: se incrementa tras cada escritura confirmada.
+ * Los resultados cacheados guardan la versión con la que se calcularon; si no coincide con la actual
+ * se descartan, de modo que una escritura invalida todas las entradas dependientes sin recorrerlas.
+ * Se incrementa después de actualizar los índices y las cachés ({@link BookChangedEvent#VERSION_ORDER}):
+ * quien ve la versión nueva ve también sus datos.
+ */
+@Component
+public class CatalogueVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Distingue esta instancia: otra réplica (o un reinicio) con el mismo contador no genera el mismo ETag
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Versión actual. Debe leerse ANTES de consultar la base de datos para que una escritura
+     * concurrente invalide el resultado calculado.
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * ETag débil de un resultado que depende de todo el catálogo: instancia, versión actual y
+     * huella de la consulta. Cambia con cualquier escritura confirmada. Es débil porque el cuerpo
+     * puede ir comprimido o en otro formato (Smile, CBOR) con el mismo contenido.
+     */
+    public String eTag(Object query) {
+        return "W/\"" + epoch + "-" + current() + "-" + Integer.toHexString(query.hashCode()) + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.VERSION_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.VERSION_ORDER)
+    public void onBooksCreated(BooksCreatedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,40 @@
+package com.relatos_de_papel.book.data.cache;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Clave normalizada de una búsqueda: textos en minúsculas y sin espacios en los extremos,
+ * de forma que "  Quijote" y "quijote" compartan la misma entrada de caché.
+ */
+public record SearchKey(String title, String language, Long categoryId, Boolean status,
+                        BigDecimal minPrice, BigDecimal maxPrice,
+                        Integer minPages, Integer maxPages,
+                        Integer minReviewScore, Integer maxReviewScore,
+                        LocalDate publishedFrom, LocalDate publishedTo,
+                        String sort, boolean descending,
+                        Long after, int limit) {
+
+    public static SearchKey of(BookQuery query) {
+        return new SearchKey(normalize(query.getTitle()), normalize(query.getLanguage()),
+                query.getCategoryId(), query.getStatus(),
+                normalize(query.getMinPrice()), normalize(query.getMaxPrice()),
+                query.getMinPages(), query.getMaxPages(),
+                query.getMinReviewScore(), query.getMaxReviewScore(),
+                query.getPublishedFrom(), query.getPublishedTo(),
+                query.getSort(), query.isDescending(),
+                query.getAfter(), query.getLimit());
+    }
+
+    private static String normalize(String value) {
+        return (value == null) ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // 10.0 y 10 son el mismo filtro
+    private static BigDecimal normalize(BigDecimal value) {
+        return (value == null) ? null : value.stripTrailingZeros();
+    }
+}
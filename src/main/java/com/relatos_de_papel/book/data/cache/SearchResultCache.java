@@ -0,0 +1,60 @@
+package com.relatos_de_papel.book.data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caché de resultados de búsqueda: por cada combinación normalizada de filtros guarda la lista de IDs
+ * resultante junto con la versión del catálogo en la que se calculó.
+ */
+@Component
+public class SearchResultCache {
+
+    private record Entry(long version, List<Long> ids) {
+    }
+
+    private final Cache<SearchKey, Entry> cache;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${books.search-cache.maximum-size:2000}") long maximumSize,
+                             @Value("${books.search-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // Mismas etiquetas que las cachés de Spring: Prometheus rechaza un mismo nombre con otras etiquetas
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "books-search",
+                "cache.manager", "searchResultCache", "name", "books-search");
+    }
+
+    /**
+     * Devuelve los IDs cacheados para la clave, o null si no hay entrada o fue calculada
+     * con una versión del catálogo distinta de la indicada.
+     */
+    public List<Long> get(SearchKey key, long version) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version() != version) {
+            // Solo se descarta si es más antigua: otro hilo pudo guardar ya una más reciente
+            if (entry.version() < version) {
+                cache.invalidate(key);
+            }
+            return null;
+        }
+        return entry.ids();
+    }
+
+    public void put(SearchKey key, long version, List<Long> ids) {
+        cache.put(key, new Entry(version, List.copyOf(ids)));
+    }
+}
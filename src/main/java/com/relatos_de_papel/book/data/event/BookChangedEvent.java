@@ -0,0 +1,64 @@
+package com.relatos_de_papel.book.data.event;
+
+import com.relatos_de_papel.book.data.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Evento publicado por el repositorio cada vez que un libro se crea, modifica o elimina.
+ * Las estructuras en memoria (cachés, índices) lo escuchan para mantenerse sincronizadas,
+ * y el outbox lo registra dentro de la misma transacción.
+ * Los cambios confirmados por otras instancias se vuelven a publicar aquí como replicados
+ * ({@link #replicated}): actualizan lo mismo, pero el outbox no los registra otra vez.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BookChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    // Orden de los listeners tras confirmar (@Order): primero los índices y las cachés, y solo después
+    // se publica la nueva versión del catálogo. Así, quien lea la versión nueva (ETag, caché de búsquedas)
+    // ya ve los índices actualizados; quien leyó la anterior guarda un resultado que se descartará.
+    public static final int INDEX_ORDER = 0;
+    public static final int CACHE_ORDER = 100;
+    public static final int VERSION_ORDER = 200;
+    public static final int NOTIFY_ORDER = 300;
+
+    /** Tipo de cambio */
+    private final Type type;
+
+    /** ID del libro afectado */
+    private final Long bookId;
+
+    /** Estado actual del libro, o null si se ha eliminado */
+    private final Book book;
+
+    /** true si el cambio lo confirmó otra instancia y llega leído del outbox */
+    private final boolean replicated;
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), book, false);
+    }
+
+    public static BookChangedEvent updated(Book book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book, false);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(Type.DELETED, bookId, null, false);
+    }
+
+    /**
+     * Cambio confirmado por otra instancia, leído del outbox.
+     */
+    public static BookChangedEvent replicated(Type type, Long bookId, Book book) {
+        return new BookChangedEvent(type, bookId, book, true);
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+}
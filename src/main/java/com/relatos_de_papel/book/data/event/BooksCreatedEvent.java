@@ -0,0 +1,26 @@
+package com.relatos_de_papel.book.data.event;
+
+import com.relatos_de_papel.book.data.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Evento publicado por la importación masiva: todas las altas de un bloque en un solo evento.
+ * Los mismos listeners que atienden {@link BookChangedEvent} lo aplican de una vez (un recorrido de los
+ * índices, un registro en la transacción), en lugar de repetir por cada fila el trabajo de un cambio
+ * suelto. Se aplica en el mismo orden ({@link BookChangedEvent#INDEX_ORDER} y siguientes).
+ */
+@Getter
+@AllArgsConstructor
+public class BooksCreatedEvent {
+
+    /** Libros creados, con su ID y versión ya asignados */
+    private final List<Book> books;
+
+    @Override
+    public String toString() {
+        return "BooksCreatedEvent(" + books.size() + " libros)";
+    }
+}
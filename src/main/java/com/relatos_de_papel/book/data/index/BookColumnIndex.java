@@ -0,0 +1,214 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.data.utils.SortField;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Consultas por columnas numéricas del catálogo sobre los arrays primitivos de {@link CompactCatalogue}
+ * (sin copia propia): precio en céntimos (long), páginas y puntuación (int) y fecha de publicación en
+ * días desde epoch (int). Resuelve rangos y ordenaciones sin boxing ni acceso a base de datos.
+ *
+ * Los libros eliminados salen del conjunto de vivos pero el catálogo conserva sus valores, para que
+ * su ID siga sirviendo como cursor de paginación.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookColumnIndex {
+
+    private final CompactCatalogue catalogue;
+
+    /** Rango primitivo ya convertido (extremos incluidos) */
+    private record Ranges(long minPrice, long maxPrice,
+                          int minPages, int maxPages,
+                          int minReview, int maxReview,
+                          boolean hasDates, int minDay, int maxDay) {
+
+        static Ranges of(BookQuery query) {
+            return new Ranges(
+                    query.getMinPrice() == null ? Long.MIN_VALUE : toCents(query.getMinPrice(), RoundingMode.CEILING),
+                    query.getMaxPrice() == null ? Long.MAX_VALUE : toCents(query.getMaxPrice(), RoundingMode.FLOOR),
+                    query.getMinPages() == null ? Integer.MIN_VALUE : query.getMinPages(),
+                    query.getMaxPages() == null ? Integer.MAX_VALUE : query.getMaxPages(),
+                    query.getMinReviewScore() == null ? Integer.MIN_VALUE : query.getMinReviewScore(),
+                    query.getMaxReviewScore() == null ? Integer.MAX_VALUE : query.getMaxReviewScore(),
+                    query.getPublishedFrom() != null || query.getPublishedTo() != null,
+                    query.getPublishedFrom() == null ? Integer.MIN_VALUE + 1 : toEpochDay(query.getPublishedFrom()),
+                    query.getPublishedTo() == null ? Integer.MAX_VALUE : toEpochDay(query.getPublishedTo()));
+        }
+    }
+
+    /**
+     * Devuelve, en orden, los IDs de la siguiente página de una búsqueda con rangos y orden.
+     * @param candidates  IDs ya filtrados por otros índices (texto, facetas), o null para todo el catálogo.
+     * @param query       Rangos, campo y dirección de orden.
+     * @param after       ID del último libro de la página anterior (cursor), o null.
+     * @param limit       Tamaño de la página.
+     * @return IDs de la página. Ordenando por ID, los posteriores al cursor (exista o no, como en la base de
+     *         datos); por otro campo, vacío si el cursor no corresponde a ningún libro conocido.
+     */
+    public long[] query(RoaringBitmap candidates, BookQuery query, Long after, int limit) {
+        Ranges ranges = Ranges.of(query);
+        SortField sort = SortField.fromProperty(query.getSort());
+        boolean descending = query.isDescending();
+
+        return catalogue.read(() -> {
+            if (after != null && (after < 0 || (sort != SortField.ID
+                    && (after > Integer.MAX_VALUE || !catalogue.known((int) (long) after))))) {
+                return new long[0];
+            }
+            // Por ID el cursor es un valor: ningún ID indexado pasa de Integer.MAX_VALUE
+            int cursor = (after == null) ? -1 : (int) Math.min(after, Integer.MAX_VALUE);
+            RoaringBitmap live = catalogue.liveIds();
+            RoaringBitmap scope = (candidates == null) ? live : RoaringBitmap.and(candidates, live);
+
+            return (sort == SortField.ID)
+                    ? scanById(scope, ranges, descending, cursor, limit)
+                    : topN(scope, ranges, sort, descending, cursor, limit);
+        });
+    }
+
+    /** Las consultas se pueden resolver aquí cuando el catálogo compacto está completo */
+    public boolean isReady() {
+        return catalogue.isReady();
+    }
+
+    /** Orden por ID: basta con recorrer el bitmap en orden y parar al llenar la página. */
+    private long[] scanById(RoaringBitmap scope, Ranges ranges, boolean descending, int cursor, int limit) {
+        long[] result = new long[limit];
+        int size = 0;
+        IntIterator it = descending ? scope.getReverseIntIterator() : scope.getIntIterator();
+        while (size < limit && it.hasNext()) {
+            int id = it.next();
+            if (cursor >= 0 && (descending ? id >= cursor : id <= cursor)) {
+                continue;
+            }
+            if (matches(id, ranges)) {
+                result[size++] = id;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Orden por otro campo: selección de los {@code limit} primeros posteriores al cursor con un
+     * montículo acotado de IDs (la raíz es el peor de la página), y ordenación final del montículo.
+     */
+    private long[] topN(RoaringBitmap scope, Ranges ranges, SortField sort, boolean descending,
+                        int cursor, int limit) {
+        int[] heap = new int[limit];
+        int size = 0;
+        IntIterator it = scope.getIntIterator();
+        while (it.hasNext()) {
+            int id = it.next();
+            if (!matches(id, ranges) || (cursor >= 0 && compare(id, cursor, sort, descending) <= 0)) {
+                continue;
+            }
+            if (size < limit) {
+                heap[size] = id;
+                siftUp(heap, size++, sort, descending);
+            } else if (compare(id, heap[0], sort, descending) < 0) {
+                heap[0] = id;
+                siftDown(heap, 0, size, sort, descending);
+            }
+        }
+
+        // Heapsort in situ: el montículo de máximos queda ordenado de menor a mayor
+        for (int end = size - 1; end > 0; end--) {
+            swap(heap, 0, end);
+            siftDown(heap, 0, end, sort, descending);
+        }
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = heap[i];
+        }
+        return result;
+    }
+
+    private boolean matches(int id, Ranges ranges) {
+        long price = catalogue.priceCents(id);
+        int numberPages = catalogue.pages(id);
+        int review = catalogue.reviewScore(id);
+        if (price < ranges.minPrice() || price > ranges.maxPrice()
+                || numberPages < ranges.minPages() || numberPages > ranges.maxPages()
+                || review < ranges.minReview() || review > ranges.maxReview()) {
+            return false;
+        }
+        if (ranges.hasDates()) {
+            int day = catalogue.epochDay(id);
+            return day != CompactCatalogue.NULL_DATE && day >= ranges.minDay() && day <= ranges.maxDay();
+        }
+        return true;
+    }
+
+    private long key(int id, SortField sort) {
+        return switch (sort) {
+            case PRICE -> catalogue.priceCents(id);
+            case NUMBER_PAGES -> catalogue.pages(id);
+            case REVIEW_SCORE -> catalogue.reviewScore(id);
+            case PUBLICATION_DATE -> catalogue.epochDay(id);
+            case ID -> id;
+        };
+    }
+
+    /** Compara por (campo, id) en la dirección pedida: negativo si {@code a} va antes que {@code b}. */
+    private int compare(int a, int b, SortField sort, boolean descending) {
+        int c = Long.compare(key(a, sort), key(b, sort));
+        if (c == 0) {
+            c = Integer.compare(a, b);
+        }
+        return descending ? -c : c;
+    }
+
+    private void siftUp(int[] heap, int i, SortField sort, boolean descending) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(heap[i], heap[parent], sort, descending) <= 0) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int size, SortField sort, boolean descending) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && compare(heap[left], heap[largest], sort, descending) > 0) {
+                largest = left;
+            }
+            if (right < size && compare(heap[right], heap[largest], sort, descending) > 0) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(heap, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
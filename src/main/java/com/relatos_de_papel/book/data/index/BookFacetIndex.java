@@ -0,0 +1,142 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.TextFolding;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Motor de facetas en memoria sobre los campos de baja cardinalidad (idioma, categoría y estado).
+ * Cada valor distinto tiene un bitmap comprimido (Roaring) con los IDs que lo tienen, de modo que
+ * los filtros de igualdad combinados son intersecciones de bitmaps y los recuentos por valor
+ * no necesitan consultas GROUP BY.
+ */
+@Component
+public class BookFacetIndex implements BookIndex {
+
+    private final Map<String, FacetField> fields = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public BookFacetIndex() {
+        fields.put(Consts.LANGUAGE, new FacetField());
+        fields.put(Consts.FK_ID_CATEGORY, new FacetField());
+        fields.put(Consts.STATUS, new FacetField());
+    }
+
+    /** Indica si el campo (nombre de la propiedad Java) es una faceta de este índice. */
+    public boolean supports(String key) {
+        return fields.containsKey(key);
+    }
+
+    /**
+     * IDs cuyo campo es igual al valor indicado (el idioma se compara sin distinguir mayúsculas ni acentos).
+     */
+    public RoaringBitmap match(String key, Object value) {
+        lock.readLock().lock();
+        try {
+            return fields.get(key).get(normalize(key, value));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recuentos por valor de cada faceta. Para cada faceta se aplican los filtros del resto de campos
+     * (pero no el suyo), como es habitual en la navegación por facetas.
+     * @param filters  Bitmap de cada filtro activo por nombre de campo (facetas o no, p. ej. el título).
+     */
+    public Map<String, Map<String, Long>> counts(Map<String, RoaringBitmap> filters) {
+        lock.readLock().lock();
+        try {
+            Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+            for (Map.Entry<String, FacetField> field : fields.entrySet()) {
+                RoaringBitmap filter = null;
+                for (Map.Entry<String, RoaringBitmap> active : filters.entrySet()) {
+                    if (field.getKey().equals(active.getKey())) {
+                        continue;
+                    }
+                    filter = (filter == null) ? active.getValue() : RoaringBitmap.and(filter, active.getValue());
+                }
+                result.put(field.getKey(), field.getValue().counts(filter));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(FacetField::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            indexLocked(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexAll(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            books.forEach(this::indexLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        int id = Math.toIntExact(bookId);
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(field -> field.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void indexLocked(Book book) {
+        int id = Math.toIntExact(book.getId());
+        fields.get(Consts.LANGUAGE).put(id, normalize(Consts.LANGUAGE, book.getLanguage()));
+        fields.get(Consts.FK_ID_CATEGORY).put(id, book.getCategoryId());
+        fields.get(Consts.STATUS).put(id, book.isStatus());
+    }
+
+    private static Object normalize(String key, Object value) {
+        if (value instanceof String text) {
+            String trimmed = text.trim();
+            return Consts.LANGUAGE.equals(key) ? TextFolding.fold(trimmed) : trimmed;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+
+import java.util.List;
+
+/**
+ * Estructura en memoria derivada del catálogo. {@link BookIndexLoader} la reconstruye al arrancar y
+ * la mantiene sincronizada con cada alta, modificación o baja.
+ */
+public interface BookIndex {
+
+    /** Vacía el índice antes de una reconstrucción completa. */
+    void clear();
+
+    /** Añade el libro o reemplaza su versión anterior. */
+    void index(Book book);
+
+    /**
+     * Añade o reemplaza varios libros. Por defecto uno a uno; los índices con lock propio lo toman una
+     * sola vez para todo el bloque.
+     */
+    default void indexAll(List<Book> books) {
+        books.forEach(this::index);
+    }
+
+    /** Elimina el libro del índice (no hace nada si no estaba). */
+    void remove(Long bookId);
+
+    /** Marca el índice como completo: a partir de aquí puede usarse para responder consultas. */
+    void markReady();
+
+    boolean isReady();
+}
@@ -0,0 +1,36 @@
+package com.relatos_de_papel.book.data.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Estado de los índices en memoria: OUT_OF_SERVICE mientras se cargan (las búsquedas van a base de datos)
+ * y UP con el origen y la duración de la carga cuando están listos. Si se han desactivado (un ID que no cabe
+ * en ellos), UP con el motivo: el servicio sigue respondiendo desde la base de datos.
+ */
+@Component("catalogueIndexes")
+@RequiredArgsConstructor
+public class BookIndexHealthIndicator implements HealthIndicator {
+
+    private final List<BookIndex> indexes;
+    private final BookIndexLoader loader;
+
+    @Override
+    public Health health() {
+        if (loader.getDisabledReason() != null) {
+            return Health.up().withDetail("disabled", loader.getDisabledReason()).build();
+        }
+        if (!indexes.stream().allMatch(BookIndex::isReady)) {
+            return Health.outOfService().build();
+        }
+        return Health.up()
+                .withDetail("source", loader.getLoadSource())
+                .withDetail("books", loader.getLoadedBooks())
+                .withDetail("loadMillis", loader.getLoadMillis())
+                .build();
+    }
+}
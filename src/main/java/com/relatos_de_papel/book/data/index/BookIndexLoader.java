@@ -0,0 +1,286 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.cache.CatalogueVersion;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import com.relatos_de_papel.book.data.snapshot.CatalogueSnapshot;
+import com.relatos_de_papel.book.data.snapshot.CatalogueSnapshotStore;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Construye los índices en memoria ({@link BookIndex}) al arrancar y los mantiene sincronizados
+ * con los cambios confirmados en el catálogo.
+ *
+ * Si hay una instantánea en disco se cargan desde ella (sin recorrer la tabla) y se reconcilian con
+ * la base de datos: altas y bajas comparando los conjuntos de IDs, y modificaciones con una consulta
+ * delta sobre {@code last_modified}. Si no la hay, se recorre el catálogo y se escribe una nueva.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookIndexLoader {
+
+    private static final int STRIPES = 64;
+
+    private final List<BookIndex> indexes;
+    private final CompactCatalogue catalogue;
+    private final BookRepository repository;
+    private final CatalogueVersion catalogueVersion;
+    private final CatalogueSnapshotStore snapshotStore;
+
+    // Margen hacia atrás de la consulta delta: cubre transacciones confirmadas después de fijar last_modified
+    @Value("${books.snapshot.delta-overlap:5m}")
+    private Duration deltaOverlap;
+
+    // Libros modificados mientras se recorría el catálogo: se releen al terminar la carga
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    // Serializan la comprobación de versión y la aplicación de cambios del mismo libro
+    private final Lock[] stripes = newStripes();
+
+    /** Origen de la última carga ("snapshot" o "database") y su duración, para el health check */
+    @Getter
+    private volatile String loadSource;
+    @Getter
+    private volatile long loadMillis;
+    @Getter
+    private volatile long loadedBooks;
+
+    /** Motivo por el que los índices en memoria se han desactivado (las búsquedas van a base de datos), o null */
+    @Getter
+    private volatile String disabledReason;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        loading = true;
+        indexes.forEach(BookIndex::clear);
+
+        // La versión se lee antes de recorrer el catálogo: si cambia durante la carga, la instantánea se rehará
+        long version = catalogueVersion.current();
+        CatalogueSnapshot snapshot = snapshotStore.open();
+        CatalogueSnapshot.Writer writer = null;
+        long count;
+        if (snapshot != null) {
+            count = loadSnapshot(snapshot);
+        } else {
+            writer = snapshotStore.writer();
+            try {
+                count = loadDatabase(writer);
+            } catch (RuntimeException e) {
+                if (writer != null) {
+                    writer.close();
+                }
+                throw e;
+            }
+        }
+        loading = false;
+        if (disabledReason != null) {
+            indexes.forEach(BookIndex::clear);
+            changedDuringLoad.clear();
+            if (writer != null) {
+                writer.close();
+            }
+            return;
+        }
+
+        for (Long bookId : new ArrayList<>(changedDuringLoad)) {
+            refresh(bookId);
+        }
+        changedDuringLoad.clear();
+
+        indexes.forEach(BookIndex::markReady);
+        loadSource = (snapshot != null) ? "snapshot" : "database";
+        loadMillis = System.currentTimeMillis() - start;
+        loadedBooks = count;
+        log.info("Índices en memoria construidos desde {}: {} libros en {} ms", loadSource, count, loadMillis);
+
+        if (writer != null) {
+            snapshotStore.write(writer, version);
+        }
+    }
+
+    private long loadDatabase(CatalogueSnapshot.Writer writer) {
+        AtomicLong count = new AtomicLong();
+        repository.forEachBook(book -> {
+            if (disabledReason != null || !fits(book.getId())) {
+                return;
+            }
+            indexes.forEach(index -> index.index(book));
+            if (writer != null) {
+                writer.add(book);
+            }
+            count.incrementAndGet();
+        });
+        return count.get();
+    }
+
+    private long loadSnapshot(CatalogueSnapshot snapshot) {
+        RoaringBitmap inSnapshot = new RoaringBitmap();
+        for (int row = 0; row < snapshot.size(); row++) {
+            Book book = snapshot.book(row);
+            if (!fits(book.getId())) {
+                return 0;
+            }
+            indexes.forEach(index -> index.index(book));
+            inSnapshot.add((int) (long) book.getId());
+        }
+
+        // Altas y bajas posteriores a la instantánea
+        RoaringBitmap inDatabase = new RoaringBitmap();
+        for (Long id : repository.getAllIds()) {
+            if (!fits(id)) {
+                return 0;
+            }
+            inDatabase.add((int) (long) id);
+        }
+        RoaringBitmap removed = RoaringBitmap.andNot(inSnapshot, inDatabase);
+        removed.forEach((int id) -> apply((long) id, null));
+        List<Long> added = new ArrayList<>();
+        RoaringBitmap.andNot(inDatabase, inSnapshot).forEach((int id) -> added.add((long) id));
+        repository.getByIds(added).forEach(this::apply);
+
+        // Modificaciones posteriores a la instantánea (reaplicar una fila ya al día no tiene efecto)
+        Instant since = (snapshot.watermark() == null) ? Instant.EPOCH : snapshot.watermark().minus(deltaOverlap);
+        AtomicLong modified = new AtomicLong();
+        repository.forEachBookModifiedSince(since, book -> {
+            apply(book.getId(), book);
+            modified.incrementAndGet();
+        });
+
+        log.info("Instantánea del {} reconciliada: {} altas, {} bajas, {} modificados desde {}",
+                snapshot.createdAt(), added.size(), removed.getCardinality(), modified.get(), since);
+        if (added.isEmpty() && removed.isEmpty() && modified.get() == 0) {
+            snapshotStore.markCurrent(catalogueVersion.current());
+        }
+        return inDatabase.getLongCardinality();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.INDEX_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        if (loading) {
+            changedDuringLoad.add(event.getBookId());
+        }
+        apply(event.getBookId(), event.getBook());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.INDEX_ORDER)
+    public void onBooksCreated(BooksCreatedEvent event) {
+        if (loading) {
+            event.getBooks().forEach(book -> changedDuringLoad.add(book.getId()));
+        }
+        applyAll(event.getBooks());
+    }
+
+    private void refresh(Long bookId) {
+        apply(bookId, repository.getForUpdate(bookId));
+    }
+
+    /**
+     * Aplica el cambio a todos los índices salvo que el catálogo ya refleje esa versión del libro, una
+     * posterior o su baja: un evento que llega tarde no reemplaza una versión más nueva ni resucita un
+     * libro eliminado. Las bajas se aplican siempre (dejan la marca aunque el alta no haya llegado).
+     */
+    private void apply(Long bookId, Book book) {
+        // Una baja de un ID que no cabe no tiene nada que retirar
+        if (disabledReason != null || (book == null ? !catalogue.fits(bookId) : !fits(bookId))) {
+            return;
+        }
+        Lock stripe = stripes[Long.hashCode(bookId) & (STRIPES - 1)];
+        stripe.lock();
+        try {
+            if (book != null && catalogue.isCurrent(bookId, book.getVersion())) {
+                return;
+            }
+            for (BookIndex index : indexes) {
+                if (book == null) {
+                    index.remove(bookId);
+                } else {
+                    index.index(book);
+                }
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Como {@link #apply} para un bloque de altas: con todas las franjas tomadas, cada índice recibe de una
+     * vez los libros que el catálogo todavía no refleja.
+     */
+    private void applyAll(List<Book> books) {
+        for (Book book : books) {
+            if (disabledReason != null || !fits(book.getId())) {
+                return;
+            }
+        }
+        for (Lock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            List<Book> pending = new ArrayList<>(books.size());
+            for (Book book : books) {
+                if (!catalogue.isCurrent(book.getId(), book.getVersion())) {
+                    pending.add(book);
+                }
+            }
+            indexes.forEach(index -> index.indexAll(pending));
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Comprueba que el ID cabe en los índices (ver {@link CompactCatalogue#fits}). Si no cabe, los desactiva
+     * en lugar de fallar: se vacían, no vuelven a estar listos y las búsquedas se resuelven en base de datos
+     * hasta el siguiente arranque.
+     */
+    private boolean fits(Long bookId) {
+        if (catalogue.fits(bookId)) {
+            return true;
+        }
+        synchronized (this) {
+            if (disabledReason == null) {
+                disabledReason = "ID " + bookId + " fuera del rango de los índices en memoria";
+                log.error("Índices en memoria desactivados: el libro {} no cabe en los arrays indexados por ID; "
+                        + "las búsquedas se resuelven en base de datos", bookId);
+                indexes.forEach(BookIndex::clear);
+            }
+        }
+        return false;
+    }
+
+    private static Lock[] newStripes() {
+        Lock[] stripes = new Lock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,215 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.SortField;
+import com.relatos_de_papel.book.data.utils.TextFolding;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Rankings de los libros activos por categoría y por idioma: mayor puntuación primero y, a igual
+ * puntuación, el más barato ({@link SortField#PRICE}) o el más reciente ({@link SortField#PUBLICATION_DATE}).
+ *
+ * Cada grupo guarda sus libros ordenados en un {@link ConcurrentSkipListSet} por criterio de desempate,
+ * de modo que una escritura cuesta O(log n) y el top-N se lee recorriendo los N primeros, sin ordenar
+ * nada por petición. Se guarda el grupo completo (no solo los N primeros) para que una baja o una bajada
+ * de puntuación no obligue a volver a consultar la base de datos.
+ *
+ * Las escrituras de un mismo libro se serializan en el mapa de entradas y una versión anterior a la
+ * indexada se ignora (eventos que llegan desordenados). Las de libros distintos no se bloquean entre sí.
+ * Los libros inactivos y los eliminados se quedan en el mapa sin enlazar (lápida) para que una versión
+ * anterior que llegue tarde no los vuelva a meter en los rankings. Como los IDs no se reutilizan, la
+ * lápida de una baja lleva la versión máxima: ninguna escritura posterior del ID es válida.
+ */
+@Component
+public class BookRankingIndex implements BookIndex {
+
+    /** Criterios de desempate admitidos */
+    public static final Set<SortField> TIEBREAKS = Set.of(SortField.PRICE, SortField.PUBLICATION_DATE);
+
+    /** Versión de la lápida de un libro eliminado */
+    static final long DELETED = Long.MAX_VALUE;
+
+    /**
+     * Estado de un libro; solo los activos ({@code ranked}) están enlazados en los rankings. El precio
+     * (en céntimos) y la fecha (día epoch) se guardan como primitivos, igual que en {@link CompactCatalogue},
+     * para que las comparaciones de cada inserción no recorran BigDecimal ni LocalDate.
+     */
+    record Entry(long id, long version, boolean ranked, int reviewScore, long price,
+                 int publicationDate, Long categoryId, String language) {
+
+        // Sin precio al final del orden ascendente; sin fecha al final del descendente
+        static final long NO_PRICE = Long.MAX_VALUE;
+        static final int NO_DATE = Integer.MIN_VALUE;
+
+        static Entry of(Book book) {
+            // Los libros inactivos no aparecen en los rankings
+            return new Entry(book.getId(), (book.getVersion() == null) ? 0L : book.getVersion(), book.isStatus(),
+                    book.getReviewScore(),
+                    (book.getPrice() == null) ? NO_PRICE
+                            : book.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                    (book.getPublicationDate() == null) ? NO_DATE
+                            : Math.toIntExact(book.getPublicationDate().toEpochDay()),
+                    book.getCategoryId(), normalize(book.getLanguage()));
+        }
+
+        static Entry deleted(long id) {
+            return new Entry(id, DELETED, false, 0, NO_PRICE, NO_DATE, null, null);
+        }
+    }
+
+    // Mayor puntuación primero; a igual puntuación, el más barato o el más reciente; por último el ID
+    private static final Map<SortField, Comparator<Entry>> ORDERS = Map.of(
+            SortField.PRICE, (a, b) -> {
+                int order = Integer.compare(b.reviewScore(), a.reviewScore());
+                if (order == 0) {
+                    order = Long.compare(a.price(), b.price());
+                }
+                return (order != 0) ? order : Long.compare(a.id(), b.id());
+            },
+            SortField.PUBLICATION_DATE, (a, b) -> {
+                int order = Integer.compare(b.reviewScore(), a.reviewScore());
+                if (order == 0) {
+                    order = Integer.compare(b.publicationDate(), a.publicationDate());
+                }
+                return (order != 0) ? order : Long.compare(a.id(), b.id());
+            });
+
+    /** Libros de un grupo (una categoría o un idioma), una lista ordenada por criterio de desempate */
+    private static final class Ranking {
+
+        final Map<SortField, NavigableSet<Entry>> orders = new EnumMap<>(SortField.class);
+
+        Ranking() {
+            ORDERS.forEach((field, order) -> orders.put(field, new ConcurrentSkipListSet<>(order)));
+        }
+
+        void add(Entry entry) {
+            orders.values().forEach(set -> set.add(entry));
+        }
+
+        void remove(Entry entry) {
+            orders.values().forEach(set -> set.remove(entry));
+        }
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Ranking> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Ranking> byLanguage = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * IDs de los {@code limit} libros activos mejor puntuados de la categoría.
+     * @param tiebreak  Uno de {@link #TIEBREAKS}.
+     */
+    public List<Long> topByCategory(Long categoryId, SortField tiebreak, int limit) {
+        return top(byCategory.get(categoryId), tiebreak, limit);
+    }
+
+    /**
+     * IDs de los {@code limit} libros activos mejor puntuados en el idioma (sin distinguir mayúsculas ni acentos).
+     * @param tiebreak  Uno de {@link #TIEBREAKS}.
+     */
+    public List<Long> topByLanguage(String language, SortField tiebreak, int limit) {
+        return top(byLanguage.get(normalize(language)), tiebreak, limit);
+    }
+
+    private static List<Long> top(Ranking ranking, SortField tiebreak, int limit) {
+        if (ranking == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        // El recorrido no bloquea: mientras se modifica un libro puede verse con su valor anterior y el nuevo
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranking.orders.get(tiebreak)) {
+            if (ids.size() == limit) {
+                break;
+            }
+            if (seen.add(entry.id())) {
+                ids.add(entry.id());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        entries.clear();
+        byCategory.clear();
+        byLanguage.clear();
+    }
+
+    @Override
+    public void index(Book book) {
+        Entry entry = Entry.of(book);
+        entries.compute(book.getId(), (id, previous) -> {
+            if (previous != null && previous.version() > entry.version()) {
+                return previous;
+            }
+            if (previous != null && previous.ranked()) {
+                unlink(previous);
+            }
+            if (entry.ranked()) {
+                link(entry);
+            }
+            return entry;
+        });
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        entries.compute(bookId, (id, previous) -> {
+            if (previous != null && previous.ranked()) {
+                unlink(previous);
+            }
+            return Entry.deleted(id);
+        });
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void link(Entry entry) {
+        if (entry.categoryId() != null) {
+            byCategory.computeIfAbsent(entry.categoryId(), c -> new Ranking()).add(entry);
+        }
+        if (entry.language() != null) {
+            byLanguage.computeIfAbsent(entry.language(), l -> new Ranking()).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        // El grupo puede no existir si el índice se vació mientras tanto
+        Ranking category = (entry.categoryId() != null) ? byCategory.get(entry.categoryId()) : null;
+        if (category != null) {
+            category.remove(entry);
+        }
+        Ranking language = (entry.language() != null) ? byLanguage.get(entry.language()) : null;
+        if (language != null) {
+            language.remove(entry);
+        }
+    }
+
+    private static String normalize(String language) {
+        return (language == null) ? null : TextFolding.fold(language.trim());
+    }
+}
@@ -0,0 +1,82 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.Consts;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Motor de búsqueda de texto en memoria sobre {@code title} y {@code description}.
+ * Sustituye a los {@code LIKE '%x%'} (que obligan a MySQL a recorrer la tabla completa)
+ * en las operaciones MATCH y MATCH_END.
+ *
+ * Va el primero en la lista de índices: al cambiar un libro, lee el texto anterior del
+ * {@link CompactCatalogue} para retirar sus trigramas antes de que el catálogo lo reemplace.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BookTextIndex implements BookIndex {
+
+    private final NgramIndex titles;
+    private final NgramIndex descriptions;
+    private volatile boolean ready;
+
+    public BookTextIndex(CompactCatalogue catalogue) {
+        titles = new NgramIndex(catalogue, CompactCatalogue.TextField.TITLE);
+        descriptions = new NgramIndex(catalogue, CompactCatalogue.TextField.DESCRIPTION);
+    }
+
+    /** Indica si el campo (nombre de la propiedad Java) está cubierto por este índice. */
+    public boolean supports(String key) {
+        return Consts.TITLE.equals(key) || Consts.DESCRIPTION.equals(key);
+    }
+
+    /**
+     * IDs cuyo campo contiene el término (o empieza por él si {@code prefix} es true).
+     */
+    public RoaringBitmap match(String key, String term, boolean prefix) {
+        NgramIndex index = Consts.TITLE.equals(key) ? titles : descriptions;
+        return index.match(term, prefix);
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        titles.clear();
+        descriptions.clear();
+    }
+
+    @Override
+    public void index(Book book) {
+        int id = Math.toIntExact(book.getId());
+        titles.put(id, book.getTitle());
+        descriptions.put(id, book.getDescription());
+    }
+
+    @Override
+    public void indexAll(List<Book> books) {
+        titles.putAll(books, Book::getTitle);
+        descriptions.putAll(books, Book::getDescription);
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        int id = Math.toIntExact(bookId);
+        titles.remove(id);
+        descriptions.remove(id);
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+}
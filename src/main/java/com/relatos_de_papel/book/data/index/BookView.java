@@ -0,0 +1,92 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Vista de solo lectura (flyweight) de un libro del {@link CompactCatalogue}: no copia datos,
+ * lee cada campo del modelo compacto al pedirlo. Una misma instancia se reutiliza para recorrer
+ * el catálogo, así que solo es válida dentro del consumidor que la recibe.
+ */
+public final class BookView {
+
+    private final CompactCatalogue catalogue;
+    private int id;
+
+    BookView(CompactCatalogue catalogue) {
+        this.catalogue = catalogue;
+    }
+
+    void moveTo(int id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return catalogue.version(id);
+    }
+
+    public Instant getLastModified() {
+        return catalogue.lastModified(id);
+    }
+
+    public String getTitle() {
+        return catalogue.title(id);
+    }
+
+    public String getDescription() {
+        return catalogue.description(id);
+    }
+
+    public String getIsbn() {
+        return catalogue.isbn(id);
+    }
+
+    /** Idioma (decodificado del diccionario, sin copiar la cadena) */
+    public String getLanguage() {
+        return catalogue.language(id);
+    }
+
+    /** Precio en céntimos, o {@link Long#MIN_VALUE} si no tiene */
+    public long getPriceCents() {
+        return catalogue.priceCents(id);
+    }
+
+    public long getAuthorId() {
+        return catalogue.authorId(id);
+    }
+
+    public int getNumberPages() {
+        return catalogue.pages(id);
+    }
+
+    public long getCategoryId() {
+        return catalogue.categoryId(id);
+    }
+
+    public int getReviewScore() {
+        return catalogue.reviewScore(id);
+    }
+
+    public boolean isStatus() {
+        return catalogue.status(id);
+    }
+
+    public LocalDate getPublicationDate() {
+        return catalogue.publicationDate(id);
+    }
+
+    public String getImage() {
+        return catalogue.image(id);
+    }
+
+    /** Copia completa como Book (no gestionado por JPA) */
+    public Book toBook() {
+        return catalogue.toBook(id);
+    }
+}
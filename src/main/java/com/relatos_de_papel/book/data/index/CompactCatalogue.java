@@ -0,0 +1,566 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.TextFolding;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Modelo de lectura compacto del catálogo completo, indexado por ID:
+ *   - campos numéricos en arrays primitivos (sin un objeto por libro),
+ *   - idioma y prefijo de la URL de imagen codificados por diccionario,
+ *   - título, descripción, ISBN y resto de la imagen en UTF-8 fuera del heap ({@link OffHeapTextArena}).
+ *
+ * El GC solo ve unos pocos arrays grandes, independientemente del número de libros. Los libros se
+ * materializan bajo demanda ({@link #toBooks}) o se recorren con un único {@link BookView} reutilizado.
+ *
+ * Es la única copia de los datos en memoria: {@link BookColumnIndex} consulta sus columnas y
+ * {@link BookTextIndex} verifica los candidatos contra su texto.
+ */
+@Component
+public class CompactCatalogue implements BookIndex {
+
+    /** Campos de texto que {@link BookTextIndex} verifica contra el catálogo */
+    enum TextField { TITLE, DESCRIPTION }
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+    // Fecha de publicación nula: ordena antes que cualquier fecha, como NULL en MySQL
+    static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    // Los arrays se indexan por ID: como mucho estas posiciones por libro conocido (o MIN_SPARSE_CAPACITY)
+    private static final int MAX_SPARSENESS = 4;
+    private static final int MIN_SPARSE_CAPACITY = 1 << 20;
+    private static final int SCAN_CHUNK = 4096;
+
+    // Se compacta el texto cuando la basura supera este tamaño y la mitad de lo ocupado
+    private static final long COMPACTION_THRESHOLD = 16L << 20;
+
+    private long[] versions;
+    private long[] lastModified;     // microsegundos desde epoch
+    private long[] prices;           // céntimos
+    private long[] categoryIds;
+    private long[] authorIds;
+    private int[] pages;
+    private int[] reviewScores;
+    private int[] epochDays;
+    private int[] languages;         // código de diccionario
+    private int[] imagePrefixes;     // código de diccionario (hasta la última '/')
+    private long[] titles;           // referencias al texto fuera del heap
+    private long[] descriptions;
+    private long[] isbns;
+    private long[] imageNames;
+    private final RoaringBitmap statuses = new RoaringBitmap();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap removed = new RoaringBitmap();      // bajas (los IDs no se reutilizan)
+
+    private StringDictionary languageDictionary;
+    private StringDictionary imagePrefixDictionary;
+    private OffHeapTextArena text;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public CompactCatalogue() {
+        reset();
+    }
+
+    /**
+     * Materializa los libros con los IDs indicados, en el mismo orden y omitiendo los que no existan.
+     */
+    public List<Book> toBooks(List<Long> ids) {
+        return collect(ids, this::toBook);
+    }
+
+    /**
+     * Vista reducida de los libros indicados: solo lee los campos del resumen (sin descripción ni ISBN).
+     */
+    public List<BookSummary> toSummaries(List<Long> ids) {
+        return collect(ids, this::toSummary);
+    }
+
+    /**
+     * Página de libros en orden de ID a partir del cursor (keyset), sin acceder a base de datos.
+     */
+    public List<Book> page(Long after, int limit) {
+        return page(after, limit, this::toBook);
+    }
+
+    /**
+     * Como {@link #page(Long, int)}, con la vista reducida.
+     */
+    public List<BookSummary> summaryPage(Long after, int limit) {
+        return page(after, limit, this::toSummary);
+    }
+
+    /**
+     * Recorre todos los libros en orden de ID con un único {@link BookView} reutilizado (sin materializarlos).
+     * El lock se toma por bloques de {@value #SCAN_CHUNK} libros para no frenar las escrituras durante
+     * todo el recorrido. El consumidor no debe guardar la vista ni escribir en el catálogo.
+     */
+    public void forEach(Consumer<BookView> consumer) {
+        BookView view = new BookView(this);
+        int next = 0;
+        boolean more = true;
+        while (more) {
+            lock.readLock().lock();
+            try {
+                PeekableIntIterator ids = live.getIntIterator();
+                ids.advanceIfNeeded(next);
+                int visited = 0;
+                while (ids.hasNext() && visited < SCAN_CHUNK) {
+                    int id = ids.next();
+                    view.moveTo(id);
+                    consumer.accept(view);
+                    next = id + 1;
+                    visited++;
+                }
+                more = ids.hasNext();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Indica si el catálogo ya refleja el cambio indicado o uno posterior: esa versión del libro o una
+     * mayor, o su baja ({@code version} null). Un libro dado de baja no vuelve a aparecer.
+     */
+    public boolean isCurrent(Long bookId, Long version) {
+        if (bookId < 0 || bookId >= MAX_CAPACITY) {
+            return version == null;
+        }
+        int id = (int) (long) bookId;
+        lock.readLock().lock();
+        try {
+            if (version == null) {
+                return !live.contains(id);
+            }
+            return removed.contains(id) || (live.contains(id) && versions[id] >= version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el ID cabe en los arrays indexados por ID: no negativo, dentro de un int y sin disparar su
+     * tamaño (como mucho {@value #MAX_SPARSENESS} posiciones por libro conocido). Los IDs que ya tienen
+     * posición siempre caben.
+     */
+    public boolean fits(Long bookId) {
+        if (bookId < 0 || bookId >= MAX_CAPACITY) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            long known = live.getLongCardinality() + removed.getLongCardinality();
+            return bookId < Math.max(versions.length, Math.max(MIN_SPARSE_CAPACITY, MAX_SPARSENESS * known));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Candidatos cuyo texto, en minúsculas y sin acentos ({@link TextFolding}), cumple la condición (los que ya no existen se descartan).
+     */
+    RoaringBitmap filterText(RoaringBitmap candidates, TextField field, Predicate<String> condition) {
+        RoaringBitmap result = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            long[] refs = (field == TextField.TITLE) ? titles : descriptions;
+            IntIterator ids = candidates.getIntIterator();
+            while (ids.hasNext()) {
+                int id = ids.next();
+                String value = live.contains(id) ? text.read(refs[id]) : null;
+                if (value != null && condition.test(TextFolding.fold(value))) {
+                    result.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /** Texto guardado del libro, o null si no existe */
+    String text(int id, TextField field) {
+        lock.readLock().lock();
+        try {
+            if (!live.contains(id)) {
+                return null;
+            }
+            return text.read((field == TextField.TITLE) ? titles[id] : descriptions[id]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una consulta sobre las columnas bajo el lock de lectura (ver los accesos por campo).
+     */
+    <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Número de libros */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Memoria directa reservada para el texto */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return text.capacityBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Añade o reemplaza el libro. Se ignora si el ID está dado de baja (la marca se conserva) o si ya hay
+     * una versión posterior.
+     */
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            indexLocked(book);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexAll(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            books.forEach(this::indexLocked);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        int id = Math.toIntExact(bookId);
+        lock.writeLock().lock();
+        try {
+            if (live.contains(id)) {
+                releaseText(id);
+                live.remove(id);
+                statuses.remove(id);
+            }
+            removed.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private <T> List<T> collect(List<Long> ids, IntFunction<T> mapper) {
+        List<T> result = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                if (id != null && id <= Integer.MAX_VALUE && live.contains(id.intValue())) {
+                    result.add(mapper.apply(id.intValue()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private <T> List<T> page(Long after, int limit, IntFunction<T> mapper) {
+        List<T> result = new ArrayList<>(Math.min(limit, 1024));
+        lock.readLock().lock();
+        try {
+            PeekableIntIterator ids = live.getIntIterator();
+            ids.advanceIfNeeded((after == null || after < 0) ? 0 : (int) Math.min(after + 1, Integer.MAX_VALUE));
+            while (ids.hasNext() && result.size() < limit) {
+                result.add(mapper.apply(ids.next()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // --- Acceso por campo para BookView y BookColumnIndex (siempre bajo el lock de lectura) ---
+
+    Book toBook(int id) {
+        long price = prices[id];
+        return Book.builder()
+                .id((long) id)
+                .version(versions[id])
+                .lastModified(lastModified(id))
+                .title(title(id))
+                .description(description(id))
+                .publicationDate(publicationDate(id))
+                .language(language(id))
+                .isbn(isbn(id))
+                .numberPages(pages[id])
+                .price(price == NULL_LONG ? null : BigDecimal.valueOf(price, 2))
+                .categoryId(categoryIds[id])
+                .authorId(authorIds[id])
+                .image(image(id))
+                .reviewScore(reviewScores[id])
+                .status(statuses.contains(id))
+                .build();
+    }
+
+    BookSummary toSummary(int id) {
+        long price = prices[id];
+        return new BookSummary((long) id, title(id), price == NULL_LONG ? null : BigDecimal.valueOf(price, 2),
+                image(id), statuses.contains(id));
+    }
+
+    long version(int id) {
+        return versions[id];
+    }
+
+    Instant lastModified(int id) {
+        long modified = lastModified[id];
+        return (modified == NULL_LONG) ? null : Instant.EPOCH.plus(modified, ChronoUnit.MICROS);
+    }
+
+    String title(int id) {
+        return text.read(titles[id]);
+    }
+
+    String description(int id) {
+        return text.read(descriptions[id]);
+    }
+
+    String isbn(int id) {
+        return text.read(isbns[id]);
+    }
+
+    String language(int id) {
+        return languageDictionary.decode(languages[id]);
+    }
+
+    long priceCents(int id) {
+        return prices[id];
+    }
+
+    int pages(int id) {
+        return pages[id];
+    }
+
+    int epochDay(int id) {
+        return epochDays[id];
+    }
+
+    /** IDs de los libros actuales (sin copiar: no modificar ni guardar fuera del lock) */
+    RoaringBitmap liveIds() {
+        return live;
+    }
+
+    /** Indica si el ID existe o existió (sus columnas conservan los últimos valores) */
+    boolean known(int id) {
+        return live.contains(id) || removed.contains(id);
+    }
+
+    long categoryId(int id) {
+        return categoryIds[id];
+    }
+
+    long authorId(int id) {
+        return authorIds[id];
+    }
+
+    int reviewScore(int id) {
+        return reviewScores[id];
+    }
+
+    boolean status(int id) {
+        return statuses.contains(id);
+    }
+
+    LocalDate publicationDate(int id) {
+        return (epochDays[id] == NULL_DATE) ? null : LocalDate.ofEpochDay(epochDays[id]);
+    }
+
+    String image(int id) {
+        String prefix = imagePrefixDictionary.decode(imagePrefixes[id]);
+        String name = text.read(imageNames[id]);
+        if (prefix == null) {
+            return name;
+        }
+        return (name == null) ? prefix : prefix + name;
+    }
+
+    // --- Internos (bajo el lock de escritura) ---
+
+    private void indexLocked(Book book) {
+        int id = Math.toIntExact(book.getId());
+        long version = (book.getVersion() == null) ? 0L : book.getVersion();
+        if (removed.contains(id) || (live.contains(id) && versions[id] > version)) {
+            return;
+        }
+        ensureCapacity(id + 1);
+        if (live.contains(id)) {
+            releaseText(id);
+        }
+        versions[id] = version;
+        lastModified[id] = (book.getLastModified() == null) ? NULL_LONG
+                : ChronoUnit.MICROS.between(Instant.EPOCH, book.getLastModified());
+        prices[id] = (book.getPrice() == null) ? NULL_LONG
+                : book.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        categoryIds[id] = book.getCategoryId();
+        authorIds[id] = book.getAuthorId();
+        pages[id] = book.getNumberPages();
+        reviewScores[id] = book.getReviewScore();
+        epochDays[id] = (book.getPublicationDate() == null) ? NULL_DATE
+                : Math.toIntExact(book.getPublicationDate().toEpochDay());
+        languages[id] = languageDictionary.encode(book.getLanguage());
+        titles[id] = text.append(book.getTitle());
+        descriptions[id] = text.append(book.getDescription());
+        isbns[id] = text.append(book.getIsbn());
+        setImage(id, book.getImage());
+        if (book.isStatus()) {
+            statuses.add(id);
+        } else {
+            statuses.remove(id);
+        }
+        live.add(id);
+    }
+
+    /**
+     * Separa la URL de la imagen en prefijo (hasta la última '/', compartido por muchos libros) y nombre.
+     */
+    private void setImage(int id, String image) {
+        int slash = (image == null) ? -1 : image.lastIndexOf('/');
+        if (slash < 0) {
+            imagePrefixes[id] = StringDictionary.NULL_CODE;
+            imageNames[id] = text.append(image);
+        } else {
+            imagePrefixes[id] = imagePrefixDictionary.encode(image.substring(0, slash + 1));
+            imageNames[id] = (slash == image.length() - 1) ? OffHeapTextArena.NULL_REF : text.append(image.substring(slash + 1));
+        }
+    }
+
+    private void releaseText(int id) {
+        text.release(titles[id]);
+        text.release(descriptions[id]);
+        text.release(isbns[id]);
+        text.release(imageNames[id]);
+    }
+
+    /**
+     * Copia el texto de los libros vivos a un almacén nuevo cuando la basura domina; el anterior
+     * se libera con el GC de sus ByteBuffers.
+     */
+    private void compactIfNeeded() {
+        if (text.garbageBytes() < COMPACTION_THRESHOLD || text.garbageBytes() * 2 < text.usedBytes()) {
+            return;
+        }
+        OffHeapTextArena compacted = new OffHeapTextArena();
+        IntIterator ids = live.getIntIterator();
+        while (ids.hasNext()) {
+            int id = ids.next();
+            titles[id] = compacted.append(text.read(titles[id]));
+            descriptions[id] = compacted.append(text.read(descriptions[id]));
+            isbns[id] = compacted.append(text.read(isbns[id]));
+            imageNames[id] = compacted.append(text.read(imageNames[id]));
+        }
+        text = compacted;
+    }
+
+    private void reset() {
+        versions = new long[INITIAL_CAPACITY];
+        lastModified = new long[INITIAL_CAPACITY];
+        prices = new long[INITIAL_CAPACITY];
+        categoryIds = new long[INITIAL_CAPACITY];
+        authorIds = new long[INITIAL_CAPACITY];
+        pages = new int[INITIAL_CAPACITY];
+        reviewScores = new int[INITIAL_CAPACITY];
+        epochDays = new int[INITIAL_CAPACITY];
+        languages = new int[INITIAL_CAPACITY];
+        imagePrefixes = new int[INITIAL_CAPACITY];
+        titles = new long[INITIAL_CAPACITY];
+        descriptions = new long[INITIAL_CAPACITY];
+        isbns = new long[INITIAL_CAPACITY];
+        imageNames = new long[INITIAL_CAPACITY];
+        statuses.clear();
+        live.clear();
+        removed.clear();
+        languageDictionary = new StringDictionary();
+        imagePrefixDictionary = new StringDictionary();
+        text = new OffHeapTextArena();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= versions.length) {
+            return;
+        }
+        int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(capacity, versions.length * 2L));
+        versions = Arrays.copyOf(versions, newCapacity);
+        lastModified = Arrays.copyOf(lastModified, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+        authorIds = Arrays.copyOf(authorIds, newCapacity);
+        pages = Arrays.copyOf(pages, newCapacity);
+        reviewScores = Arrays.copyOf(reviewScores, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        languages = Arrays.copyOf(languages, newCapacity);
+        imagePrefixes = Arrays.copyOf(imagePrefixes, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        descriptions = Arrays.copyOf(descriptions, newCapacity);
+        isbns = Arrays.copyOf(isbns, newCapacity);
+        imageNames = Arrays.copyOf(imageNames, newCapacity);
+    }
+}
@@ -0,0 +1,61 @@
+package com.relatos_de_papel.book.data.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bitmaps de un campo de baja cardinalidad: un bitmap de IDs por cada valor distinto.
+ * No guarda el valor de cada ID (el catálogo compacto ya lo tiene): al cambiar un libro se retira de los
+ * bitmaps de todos los valores, que son pocos.
+ * No es thread-safe; {@link BookFacetIndex} lo protege con su propio lock.
+ */
+class FacetField {
+
+    private final Map<Object, RoaringBitmap> bitmaps = new HashMap<>();
+
+    void clear() {
+        bitmaps.clear();
+    }
+
+    void put(int id, Object value) {
+        RoaringBitmap current = (value == null) ? null : bitmaps.get(value);
+        if (current != null && current.contains(id)) {
+            return;
+        }
+        remove(id);
+        if (value != null) {
+            bitmaps.computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    void remove(int id) {
+        bitmaps.values().removeIf(bitmap -> bitmap.checkedRemove(id) && bitmap.isEmpty());
+    }
+
+    /** Copia del bitmap de un valor (vacío si no hay libros con ese valor). */
+    RoaringBitmap get(Object value) {
+        RoaringBitmap bitmap = bitmaps.get(value);
+        return (bitmap == null) ? new RoaringBitmap() : bitmap.clone();
+    }
+
+    /**
+     * Número de libros por valor dentro del filtro (o de todo el campo si el filtro es null),
+     * omitiendo los valores sin resultados.
+     */
+    Map<String, Long> counts(RoaringBitmap filter) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<Object, RoaringBitmap> entry : bitmaps.entrySet()) {
+            long count = (filter == null)
+                    ? entry.getValue().getLongCardinality()
+                    : RoaringBitmap.andCardinality(entry.getValue(), filter);
+            if (count > 0) {
+                counts.put(String.valueOf(entry.getKey()), count);
+            }
+        }
+        return new LinkedHashMap<>(counts);
+    }
+}
@@ -0,0 +1,160 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.TextFolding;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre un campo de texto. Cada trigrama apunta a un bitmap con los IDs
+ * que lo contienen; una búsqueda por subcadena intersecta los bitmaps de sus trigramas y verifica
+ * los candidatos contra el texto del {@link CompactCatalogue} (no guarda otra copia).
+ *
+ * Los trigramas del texto anterior se leen del catálogo antes de que este se actualice, por eso
+ * {@link BookTextIndex} se aplica antes que él. La lectura se hace bajo el lock de escritura del índice, y
+ * {@link BookIndexLoader} aplica los cambios de un mismo libro de uno en uno: el texto anterior es siempre
+ * el que se indexó la última vez, y no se retiran trigramas que el texto nuevo necesita.
+ *
+ * Cada trigrama se guarda como un long con sus tres caracteres de 16 bits: sin subcadenas que crear,
+ * ni hashes de String que calcular en cada alta.
+ */
+class NgramIndex {
+
+    static final int GRAM = 3;
+
+    private final CompactCatalogue catalogue;
+    private final CompactCatalogue.TextField field;
+    private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    NgramIndex(CompactCatalogue catalogue, CompactCatalogue.TextField field) {
+        this.catalogue = catalogue;
+        this.field = field;
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            all.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(int id, String text) {
+        lock.writeLock().lock();
+        try {
+            putLocked(id, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Como {@link #put} para un bloque de libros, con un único lock */
+    void putAll(List<Book> books, Function<Book, String> text) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                putLocked(Math.toIntExact(book.getId()), text.apply(book));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs cuyo texto contiene el término (o empieza por él si {@code prefix} es true),
+     * sin distinguir mayúsculas ni acentos ({@link TextFolding}).
+     */
+    RoaringBitmap match(String term, boolean prefix) {
+        String needle = TextFolding.fold(term);
+        RoaringBitmap candidates;
+        lock.readLock().lock();
+        try {
+            candidates = candidates(needle);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return catalogue.filterText(candidates, field,
+                text -> prefix ? text.startsWith(needle) : text.contains(needle));
+    }
+
+    /** Copia de los candidatos (los bitmaps se siguen modificando al soltar el lock) */
+    private RoaringBitmap candidates(String needle) {
+        // Términos más cortos que un trigrama: no hay posting list útil, se verifican todos los textos
+        if (needle.length() < GRAM) {
+            return all.clone();
+        }
+        RoaringBitmap candidates = null;
+        for (long gram : grams(needle)) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting == null) {
+                return new RoaringBitmap();
+            }
+            candidates = (candidates == null) ? posting.clone() : RoaringBitmap.and(candidates, posting);
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private void putLocked(int id, String text) {
+        removeLocked(id);
+        if (text == null) {
+            return;
+        }
+        all.add(id);
+        for (long gram : grams(TextFolding.fold(text))) {
+            postings.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    /** Retira los trigramas del texto que el catálogo guarda todavía para el ID */
+    private void removeLocked(int id) {
+        all.remove(id);
+        String previous = catalogue.text(id, field);
+        if (previous == null) {
+            return;
+        }
+        for (long gram : grams(TextFolding.fold(previous))) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trigramas del texto, en orden de aparición y con repeticiones: no se ordenan para quitarlas porque
+     * añadir o retirar dos veces el mismo ID de un bitmap no cambia nada.
+     */
+    private static long[] grams(String text) {
+        int count = Math.max(0, text.length() - GRAM + 1);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return grams;
+    }
+}
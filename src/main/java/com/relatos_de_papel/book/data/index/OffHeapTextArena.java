@@ -0,0 +1,83 @@
+package com.relatos_de_papel.book.data.index;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacén de texto fuera del heap: páginas de {@value #PAGE_SIZE} bytes en ByteBuffers directos,
+ * con las cadenas en UTF-8 una detrás de otra. Cada cadena se identifica con una referencia
+ * {@code long} (offset global << 16 | longitud), así que el heap solo guarda primitivos y el GC
+ * no recorre el texto. Es de solo añadir: el espacio de las cadenas reemplazadas se contabiliza
+ * como basura y se recupera compactando (ver {@link CompactCatalogue}).
+ * No es thread-safe: lo protege el lock de {@link CompactCatalogue}.
+ */
+final class OffHeapTextArena {
+
+    static final long NULL_REF = -1L;
+
+    private static final int PAGE_SHIFT = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int MAX_LENGTH = 0xFFFF;
+
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private long end;
+    private long garbage;
+
+    long append(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Texto demasiado largo: " + bytes.length + " bytes");
+        }
+        // Una cadena nunca cruza el final de una página
+        int position = (int) (end & (PAGE_SIZE - 1));
+        if (position + bytes.length > PAGE_SIZE) {
+            end += PAGE_SIZE - position;
+            position = 0;
+        }
+        int page = (int) (end >>> PAGE_SHIFT);
+        while (pages.size() <= page) {
+            pages.add(ByteBuffer.allocateDirect(PAGE_SIZE));
+        }
+        pages.get(page).put(position, bytes);
+        long ref = (end << 16) | bytes.length;
+        end += bytes.length;
+        return ref;
+    }
+
+    String read(long ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int length = (int) (ref & MAX_LENGTH);
+        long offset = ref >>> 16;
+        byte[] bytes = new byte[length];
+        pages.get((int) (offset >>> PAGE_SHIFT)).get((int) (offset & (PAGE_SIZE - 1)), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Marca como basura el espacio de una cadena que ya no se usa */
+    void release(long ref) {
+        if (ref != NULL_REF) {
+            garbage += ref & MAX_LENGTH;
+        }
+    }
+
+    /** Bytes ocupados por cadenas (vivas o no) */
+    long usedBytes() {
+        return end;
+    }
+
+    long garbageBytes() {
+        return garbage;
+    }
+
+    /** Memoria directa reservada */
+    long capacityBytes() {
+        return (long) pages.size() * PAGE_SIZE;
+    }
+}
@@ -0,0 +1,40 @@
+package com.relatos_de_papel.book.data.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificación por diccionario de un campo de baja cardinalidad: cada valor distinto se guarda
+ * una sola vez y las filas almacenan su código (int). Los códigos no se reutilizan.
+ * No es thread-safe: lo protege el lock de {@link CompactCatalogue}.
+ */
+final class StringDictionary {
+
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        return (code == NULL_CODE) ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -1,19 +1,27 @@
 package com.relatos_de_papel.book.data.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.relatos_de_papel.book.controller.model.BookDto;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
 @Table(name= "books")
+@DynamicUpdate   // El UPDATE solo incluye las columnas modificadas
 @Getter
 @Setter
 @AllArgsConstructor
@@ -22,8 +30,8 @@ import java.time.LocalDate;
 @ToString
 public class Book {
 
+    // Lo asigna BookIdAllocator antes de insertar (sin AUTO_INCREMENT, para poder insertar en batch)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     // --- Título obligatorio, max 150 caracteres ---
@@ -92,6 +100,19 @@ public class Book {
     @Column(name = "status", nullable = false)
     private boolean status;
 
+    // --- Versión para bloqueo optimista (se expone también como ETag) ---
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // --- Fecha de la última modificación (alta incluida), para Last-Modified. ISO-8601, solo lectura ---
+    @JsonSerialize(using = ToStringSerializer.class)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
     /**
      * Actualiza todos los campos de este Book a partir de un DTO.
     */
@@ -110,4 +131,16 @@ public class Book {
         this.status          = bookDto.getStatus();
     }
 
+    /**
+     * Redondea el precio a la escala de la columna (2 decimales) antes de escribirlo, para que el libro
+     * en memoria (respuesta, eventos, JSON cacheado por versión) sea idéntico al que se relee después.
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalizePrice() {
+        if (price != null) {
+            price = price.setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
 }
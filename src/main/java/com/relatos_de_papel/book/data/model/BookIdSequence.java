@@ -0,0 +1,26 @@
+package com.relatos_de_papel.book.data.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador (una sola fila) del último ID de libro reservado. Los IDs se reservan por bloques
+ * ({@link com.relatos_de_papel.book.data.repository.BookIdAllocator}), de modo que las altas conocen su ID
+ * antes de insertar y la importación masiva no depende de AUTO_INCREMENT ni de leer las claves generadas.
+ */
+@Entity
+@Table(name = "book_id_sequence")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookIdSequence {
+
+    public static final long ROW_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+}
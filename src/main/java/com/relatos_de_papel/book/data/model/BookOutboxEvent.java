@@ -0,0 +1,46 @@
+package com.relatos_de_papel.book.data.model;
+
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entrada del outbox de cambios del catálogo. Se escribe en la misma transacción que el cambio,
+ * así que solo existe si el cambio se confirmó. El ID es el offset del evento: creciente y sin huecos
+ * en orden de confirmación (lo asigna {@link BookOutboxSequence}).
+ */
+@Entity
+@Table(name = "book_outbox", indexes = @Index(name = "idx_book_outbox_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class BookOutboxEvent {
+
+    // --- Offset del evento (no autogenerado) ---
+    @Id
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private BookChangedEvent.Type type;
+
+    // --- Versión del libro tras el cambio (null si se eliminó) ---
+    @Column(name = "book_version")
+    private Long bookVersion;
+
+    // --- Libro serializado en JSON tras el cambio (null si se eliminó) ---
+    @Lob
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,26 @@
+package com.relatos_de_papel.book.data.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador (una sola fila) del último offset asignado en el outbox. Cada transacción lo bloquea
+ * con SELECT ... FOR UPDATE hasta confirmar, de modo que los offsets se asignan en el mismo orden
+ * en que se confirman las transacciones y un consumidor que avanza por offset no se salta eventos.
+ */
+@Entity
+@Table(name = "book_outbox_sequence")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookOutboxSequence {
+
+    public static final long ROW_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_offset", nullable = false)
+    private long lastOffset;
+}
@@ -0,0 +1,163 @@
+package com.relatos_de_papel.book.data.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.model.BookOutboxSequence;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escribe cada {@link BookChangedEvent} (y cada alta de un {@link BooksCreatedEvent}) en el outbox
+ * ({@code book_outbox}) dentro de la transacción que produjo el cambio. Los eventos de una transacción se acumulan y se insertan en un único batch
+ * justo antes de confirmar, tras reservar sus offsets en {@code book_outbox_sequence}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookOutboxWriter implements SmartInitializingSingleton {
+
+    private static final String INIT_SEQUENCE_SQL = "INSERT INTO book_outbox_sequence (id, last_offset) "
+            + "SELECT ?, COALESCE(MAX(id), 0) FROM book_outbox "
+            + "WHERE NOT EXISTS (SELECT 1 FROM book_outbox_sequence WHERE id = ?)";
+    private static final String LOCK_SEQUENCE_SQL = "SELECT last_offset FROM book_outbox_sequence WHERE id = ? FOR UPDATE";
+    private static final String ADVANCE_SEQUENCE_SQL = "UPDATE book_outbox_sequence SET last_offset = ? WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO book_outbox (id, book_id, type, book_version, payload, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Evento ya serializado, pendiente de escribir al confirmar */
+    private record Entry(Long bookId, BookChangedEvent.Type type, Long version, String payload, Instant createdAt) {
+    }
+
+    /**
+     * Crea la fila del contador si no existe (partiendo del último offset escrito, si lo hay).
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.update(INIT_SEQUENCE_SQL, BookOutboxSequence.ROW_ID, BookOutboxSequence.ROW_ID);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia la creó a la vez
+            log.debug("Contador del outbox ya inicializado");
+        }
+    }
+
+    /**
+     * Listener síncrono: se ejecuta en el hilo (y la transacción) de quien publica el evento.
+     * Los cambios replicados de otras instancias ya están en el outbox.
+     */
+    @EventListener(condition = "!#event.replicated")
+    public void onBookChanged(BookChangedEvent event) {
+        write(List.of(toEntry(event)));
+    }
+
+    /** Un bloque de altas de la importación masiva: una entrada CREATED por libro */
+    @EventListener
+    public void onBooksCreated(BooksCreatedEvent event) {
+        List<Entry> entries = new ArrayList<>(event.getBooks().size());
+        for (Book book : event.getBooks()) {
+            entries.add(toEntry(BookChangedEvent.created(book)));
+        }
+        write(entries);
+    }
+
+    private void write(List<Entry> entries) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> append(entries));
+            return;
+        }
+        pending().addAll(entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry> pending() {
+        List<Entry> entries = (List<Entry>) TransactionSynchronizationManager.getResource(this);
+        if (entries == null) {
+            List<Entry> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    append(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BookOutboxWriter.this);
+                }
+            });
+            entries = created;
+        }
+        return entries;
+    }
+
+    /**
+     * Reserva los offsets (el bloqueo del contador se mantiene hasta confirmar) e inserta los eventos.
+     */
+    private void append(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Long last = jdbcTemplate.queryForObject(LOCK_SEQUENCE_SQL, Long.class, BookOutboxSequence.ROW_ID);
+        long first = ((last != null) ? last : 0L) + 1;
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Entry entry = entries.get(i);
+                ps.setLong(1, first + i);
+                ps.setLong(2, entry.bookId());
+                ps.setString(3, entry.type().name());
+                if (entry.version() != null) {
+                    ps.setLong(4, entry.version());
+                } else {
+                    ps.setNull(4, Types.BIGINT);
+                }
+                ps.setString(5, entry.payload());
+                ps.setTimestamp(6, Timestamp.from(entry.createdAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+        jdbcTemplate.update(ADVANCE_SEQUENCE_SQL, first + entries.size() - 1, BookOutboxSequence.ROW_ID);
+    }
+
+    private Entry toEntry(BookChangedEvent event) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (event.isDeleted()) {
+            return new Entry(event.getBookId(), event.getType(), null, null, now);
+        }
+        try {
+            return new Entry(event.getBookId(), event.getType(), event.getBook().getVersion(),
+                    objectMapper.writeValueAsString(event.getBook()), now);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el libro " + event.getBookId(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.relatos_de_papel.book.data.repository;
+
+import com.relatos_de_papel.book.data.model.BookIdSequence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserva los IDs de los libros en {@code book_id_sequence} por bloques de IDs consecutivos:
+ * <ul>
+ *   <li>la importación masiva reserva de una vez los IDs de todo el bloque que va a insertar;</li>
+ *   <li>las altas sueltas toman el siguiente de un bloque en memoria de {@code books.ids.pool-size} IDs.</li>
+ * </ul>
+ * Cada reserva es una transacción propia y corta: el contador no queda bloqueado hasta que confirma el alta.
+ * Un bloque que no llega a usarse (reinicio, rollback) deja un hueco en los IDs, que no se reutilizan.
+ */
+@Component
+@Slf4j
+public class BookIdAllocator implements SmartInitializingSingleton {
+
+    private static final String INIT_SEQUENCE_SQL = "INSERT INTO book_id_sequence (id, last_id) "
+            + "SELECT ?, COALESCE(MAX(id), 0) FROM books "
+            + "WHERE NOT EXISTS (SELECT 1 FROM book_id_sequence WHERE id = ?)";
+    private static final String LOCK_SEQUENCE_SQL = "SELECT last_id FROM book_id_sequence WHERE id = ? FOR UPDATE";
+    private static final String ADVANCE_SEQUENCE_SQL = "UPDATE book_id_sequence SET last_id = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reservation;
+    private final int poolSize;
+
+    // Bloque en memoria de las altas sueltas: [next, limit)
+    private long next;
+    private long limit;
+
+    public BookIdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           @Value("${books.ids.pool-size:50}") int poolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservation = new TransactionTemplate(transactionManager);
+        this.reservation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Crea la fila del contador si no existe, a partir del mayor ID del catálogo.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.update(INIT_SEQUENCE_SQL, BookIdSequence.ROW_ID, BookIdSequence.ROW_ID);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia la creó a la vez
+            log.debug("Contador de IDs de libros ya inicializado");
+        }
+    }
+
+    /** ID para un alta suelta */
+    public synchronized long next() {
+        if (next >= limit) {
+            next = reserve(poolSize);
+            limit = next + poolSize;
+        }
+        return next++;
+    }
+
+    /**
+     * Reserva {@code count} IDs consecutivos.
+     * @return El primero de ellos.
+     */
+    public long reserve(int count) {
+        Long first = reservation.execute(status -> {
+            Long last = jdbcTemplate.queryForObject(LOCK_SEQUENCE_SQL, Long.class, BookIdSequence.ROW_ID);
+            long current = (last != null) ? last : 0L;
+            jdbcTemplate.update(ADVANCE_SEQUENCE_SQL, current + count, BookIdSequence.ROW_ID);
+            return current + 1;
+        });
+        if (first == null) {
+            throw new IllegalStateException("No se pudieron reservar IDs de libros");
+        }
+        return first;
+    }
+}
@@ -1,11 +1,21 @@
 package com.relatos_de_papel.book.data.repository;
 
+import com.relatos_de_papel.book.controller.model.BookSummary;
 import com.relatos_de_papel.book.data.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookJpaRepository
@@ -47,4 +57,46 @@ public interface BookJpaRepository
 
     /** Ejemplo combinado: buscar por autor e idioma */
     List<Book> findByAuthorIdAndLanguage(Long authorId, String language);
+
+    /** ISBN de la lista que ya existen en el catálogo (para deduplicar importaciones) */
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findIsbnsIn(@Param("isbns") Collection<String> isbns);
+
+    /** Paginación por keyset: los siguientes libros con ID mayor que el cursor, ordenados por ID */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /** Como {@link #findByIdGreaterThanOrderByIdAsc}, proyectado a la vista reducida (sin entidades gestionadas) */
+    @Query("select new com.relatos_de_papel.book.controller.model.BookSummary(b.id, b.title, b.price, b.image, b.status) "
+            + "from Book b where b.id > :after order by b.id")
+    List<BookSummary> findSummariesAfter(@Param("after") Long after, Limit limit);
+
+    /** Vista reducida de los libros con los IDs indicados (sin orden) */
+    @Query("select new com.relatos_de_papel.book.controller.model.BookSummary(b.id, b.title, b.price, b.image, b.status) "
+            + "from Book b where b.id in :ids")
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recorre el catálogo completo como un cursor del servidor (lecturas de solo lectura, por bloques
+     * de fetch-size). Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAll();
+
+    /** Libros modificados desde la fecha indicada (delta sobre una instantánea), como cursor del servidor */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b from Book b where b.lastModified >= :since order by b.id")
+    Stream<Book> streamModifiedSince(@Param("since") Instant since);
+
+    /** IDs de todo el catálogo (para reconciliar altas y bajas con una instantánea) */
+    @Query("select b.id from Book b")
+    List<Long> findAllIds();
 }
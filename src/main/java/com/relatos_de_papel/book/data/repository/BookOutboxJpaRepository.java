@@ -0,0 +1,30 @@
+package com.relatos_de_papel.book.data.repository;
+
+import com.relatos_de_papel.book.data.model.BookOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BookOutboxJpaRepository extends JpaRepository<BookOutboxEvent, Long> {
+
+    /** Los siguientes eventos a partir del offset indicado, en orden */
+    List<BookOutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /** Último offset escrito (null si el outbox está vacío) */
+    @Query("select max(e.id) from BookOutboxEvent e")
+    Long findMaxId();
+
+    /** Elimina los eventos anteriores a la fecha indicada (retención) */
+    @Transactional
+    @Modifying
+    @Query("delete from BookOutboxEvent e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
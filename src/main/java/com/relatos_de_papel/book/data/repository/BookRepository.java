@@ -1,49 +1,470 @@
 package com.relatos_de_papel.book.data.repository;
 
+import com.relatos_de_papel.book.config.CacheConfig;
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.controller.model.BulkDeleteRequest;
+import com.relatos_de_papel.book.controller.model.BulkUpdateRequest;
+import com.relatos_de_papel.book.data.cache.BookCacheInvalidator;
+import com.relatos_de_papel.book.data.cache.CatalogueVersion;
+import com.relatos_de_papel.book.data.cache.SearchKey;
+import com.relatos_de_papel.book.data.cache.SearchResultCache;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.index.BookColumnIndex;
+import com.relatos_de_papel.book.data.index.BookFacetIndex;
+import com.relatos_de_papel.book.data.index.BookRankingIndex;
+import com.relatos_de_papel.book.data.index.BookTextIndex;
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
 import com.relatos_de_papel.book.data.model.Book;
 import com.relatos_de_papel.book.data.utils.Consts;
 import com.relatos_de_papel.book.data.utils.SearchCriteria;
 import com.relatos_de_papel.book.data.utils.SearchOperation;
 import com.relatos_de_papel.book.data.utils.SearchStatement;
+import com.relatos_de_papel.book.data.utils.SortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;    // Usamos StringUtils de Spring, no la de Micrometer
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
+@Timed(value = "books.repository", histogram = true)   // un temporizador por método (etiquetas class y method)
 @RequiredArgsConstructor
 public class BookRepository {
 
+    /** Tamaño máximo de las listas de IDs en cláusulas {@code IN} */
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    // Propiedades de control de Book (no son criterios de búsqueda, por eso no están en Consts)
+    private static final String VERSION = "version";
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private static final String INSERT_SQL = "INSERT INTO books (id, title, description, publication_date, language, "
+            + "isbn, number_pages, price, fk_id_category, fk_id_author, image, review_score, status, version, "
+            + "last_modified) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
     private final BookJpaRepository repository;  // tu JPA repo que extiende JpaRepository<Book, Long> + JpaSpecificationExecutor
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookIdAllocator idAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final BookCacheInvalidator cacheInvalidator;
+    private final CatalogueVersion catalogueVersion;
+    private final SearchResultCache searchResultCache;
+    private final BookTextIndex textIndex;
+    private final BookFacetIndex facetIndex;
+    private final BookColumnIndex columnIndex;
+    private final CompactCatalogue compactCatalogue;
+    private final BookRankingIndex rankingIndex;
+    private final BookSearchQueries searchQueries;
+
+    /**
+     * Devuelve una página de libros ordenada por ID, empezando después del cursor (keyset).
+     * @param after  ID del último libro de la página anterior (null para empezar desde el principio).
+     * @param limit  Número máximo de libros a devolver.
+     */
+    public List<Book> getBooks(Long after, int limit) {
+        if (compactCatalogue.isReady()) {
+            return compactCatalogue.page(after, limit);
+        }
+        return repository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    /**
+     * Como {@link #getBooks(Long, int)}, con la vista reducida: desde el modelo compacto o con una
+     * proyección JPQL que solo lee esas columnas y no instancia entidades.
+     */
+    public List<BookSummary> getBookSummaries(Long after, int limit) {
+        if (compactCatalogue.isReady()) {
+            return compactCatalogue.summaryPage(after, limit);
+        }
+        return repository.findSummariesAfter(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    /**
+     * Recorre todo el catálogo con un cursor de base de datos, entregando cada libro al consumidor y
+     * desacoplándolo del contexto de persistencia para que la memoria no crezca con el tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> consumer) {
+        try (Stream<Book> books = repository.streamAll()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    /**
+     * Recorre los libros modificados desde la fecha indicada, igual que {@link #forEachBook(Consumer)}.
+     */
+    @Transactional(readOnly = true)
+    public void forEachBookModifiedSince(Instant since, Consumer<Book> consumer) {
+        try (Stream<Book> books = repository.streamModifiedSince(since)) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
 
     /**
-     * Devuelve todos los libros.
+     * IDs de todos los libros del catálogo.
      */
-    public List<Book> getBooks() {
-        return repository.findAll();
+    public List<Long> getAllIds() {
+        return repository.findAllIds();
     }
 
     /**
-     * Devuelve un libro por su ID (o null si no existe).
+     * Devuelve un libro por su ID (o null si no existe), pasando por la caché de libros.
+     * La instancia cacheada es compartida: no debe modificarse (usar {@link #update(Long, Long, Consumer)}).
+     * No usa {@code @Cacheable(sync = true)}: Caffeine ejecutaría la consulta dentro de un bloque synchronized
+     * del mapa, fijando el hilo virtual a su portador (las cargas concurrentes ya se agrupan en el servicio).
+     * En su lugar la caché se rellena con {@link BookCacheInvalidator#fill}, que descarta el libro leído si
+     * se invalidó mientras tanto.
      */
     public Book getById(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        Cache.ValueWrapper cached = (cache != null) ? cache.get(id) : null;
+        if (cached != null) {
+            return (Book) cached.get();
+        }
+        long generation = cacheInvalidator.generation(id);
+        Book book = repository.findById(id).orElse(null);
+        cacheInvalidator.fill(id, book, generation);
+        return book;
+    }
+
+    /**
+     * Devuelve un libro leído directamente de base de datos (sin caché), para modificarlo y guardarlo.
+     */
+    public Book getForUpdate(Long id) {
         return repository.findById(id).orElse(null);
     }
 
     /**
-     * Guarda o actualiza un libro.
+     * Devuelve los libros con los IDs indicados, en el mismo orden y omitiendo los que no existan.
+     */
+    public List<Book> getAllById(List<Long> ids) {
+        Map<Long, Book> found = getByIds(ids);
+        List<Book> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Book book = found.get(id);
+            if (book != null) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resuelve un conjunto de IDs: primero desde la caché de libros y los que falten con consultas
+     * {@code IN} de como mucho {@value #IN_CHUNK_SIZE} IDs. Los libros leídos se guardan en la caché,
+     * y los IDs inexistentes también (como entradas negativas), con la misma comprobación que
+     * {@link #getById(Long)}: no se guarda nada leído antes de una invalidación de ese ID (p. ej. un
+     * "no existe" leído mientras se confirmaba su alta).
+     * @return Mapa ID → libro solo con los que existen.
+     */
+    public Map<Long, Book> getByIds(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        Map<Long, Book> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Cache.ValueWrapper cached = (cache != null) ? cache.get(id) : null;
+            if (cached == null) {
+                misses.add(id);
+            } else if (cached.get() != null) {
+                found.put(id, (Book) cached.get());
+            }
+        }
+
+        for (int from = 0; from < misses.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = misses.subList(from, Math.min(from + IN_CHUNK_SIZE, misses.size()));
+            long[] generations = new long[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                generations[i] = cacheInvalidator.generation(chunk.get(i));
+            }
+            for (Book book : repository.findAllById(chunk)) {
+                found.put(book.getId(), book);
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                cacheInvalidator.fill(chunk.get(i), found.get(chunk.get(i)), generations[i]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Guarda o actualiza un libro y notifica el cambio (el outbox se escribe en la misma transacción;
+     * la entrada de la caché se invalida al confirmar y la siguiente lectura la vuelve a rellenar).
      */
+    @Transactional
     public Book save(Book book) {
-        return repository.save(book);
+        boolean created = book.getId() == null;
+        if (created) {
+            book.setId(idAllocator.next());
+        }
+        Book saved = repository.save(book);
+        eventPublisher.publishEvent(created ? BookChangedEvent.created(saved) : BookChangedEvent.updated(saved));
+        return saved;
+    }
+
+    /**
+     * Aplica los cambios sobre la entidad gestionada dentro de una transacción: Hibernate detecta
+     * los campos modificados al hacer flush y, con {@code @DynamicUpdate}, solo escribe esas columnas
+     * (sin el merge ni el SELECT adicional de {@link #save(Book)}). La entrada de la caché se invalida
+     * al confirmar la transacción.
+     * @param expectedVersion  Versión que el cliente espera modificar (If-Match), o null para no comprobarla.
+     * @return El libro actualizado, o null si no existe.
+     * @throws OptimisticLockingFailureException si la versión no coincide o el libro cambió a la vez.
+     */
+    @Transactional
+    public Book update(Long id, Long expectedVersion, Consumer<Book> changes) {
+        Book book = entityManager.find(Book.class, id);
+        if (book == null) {
+            return null;
+        }
+        if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Book.class, id);
+        }
+        changes.accept(book);
+        entityManager.flush();
+        eventPublisher.publishEvent(BookChangedEvent.updated(book));
+        return book;
+    }
+
+    /**
+     * Inserta un bloque de libros con un único batch JDBC (reescrito como INSERT multi-fila en MySQL)
+     * y notifica todas las altas con un solo {@link BooksCreatedEvent}. Los IDs se reservan antes como un
+     * bloque consecutivo y se asignan a cada libro en el mismo orden.
+     * Si alguna fila viola una restricción (p. ej. ISBN duplicado) no se inserta ninguna.
+     */
+    @Transactional
+    public void insertAll(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        // Misma precisión que la columna (microsegundos) para que Last-Modified coincida al releer
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        long firstId = idAllocator.reserve(books.size());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Book book = books.get(i);
+                book.normalizePrice();
+                ps.setLong(1, firstId + i);
+                ps.setString(2, book.getTitle());
+                ps.setString(3, book.getDescription());
+                ps.setObject(4, book.getPublicationDate());
+                ps.setString(5, book.getLanguage());
+                ps.setString(6, book.getIsbn());
+                ps.setInt(7, book.getNumberPages());
+                ps.setBigDecimal(8, book.getPrice());
+                ps.setLong(9, book.getCategoryId());
+                ps.setLong(10, book.getAuthorId());
+                ps.setString(11, book.getImage());
+                ps.setInt(12, book.getReviewScore());
+                ps.setBoolean(13, book.isStatus());
+                ps.setTimestamp(14, Timestamp.from(now));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return books.size();
+            }
+        });
+
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            book.setId(firstId + i);
+            book.setVersion(0L);
+            book.setLastModified(now);
+        }
+        eventPublisher.publishEvent(new BooksCreatedEvent(List.copyOf(books)));
+    }
+
+    /**
+     * De los ISBN indicados, devuelve los que ya existen en el catálogo.
+     */
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(isbns);
+        for (int from = 0; from < all.size(); from += IN_CHUNK_SIZE) {
+            existing.addAll(repository.findIsbnsIn(all.subList(from, Math.min(from + IN_CHUNK_SIZE, all.size()))));
+        }
+        return existing;
     }
 
     /**
-     * Elimina un libro.
+     * Elimina un libro, lo saca de la caché y notifica el cambio (el outbox se escribe en la misma transacción).
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#book.id")
     public void delete(Book book) {
         repository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book.getId()));
+    }
+
+    /**
+     * Modificación masiva con sentencias UPDATE por conjuntos: primero se bloquean (FOR UPDATE, en orden
+     * de ID) los libros afectados, después se actualizan con un UPDATE por bloque de como mucho
+     * {@value #IN_CHUNK_SIZE} IDs, subiendo la versión y la fecha de modificación, y por último se releen
+     * para notificar cada cambio (outbox en la misma transacción; caché e índices al confirmar).
+     * @param changes   Filtro o IDs, y cambios a aplicar (ya validados).
+     * @param maxRows   Máximo de libros que se pueden modificar de una vez.
+     * @return Filas modificadas, o null si el filtro abarca más de {@code maxRows} libros (no se modifica ninguno).
+     */
+    @Transactional
+    public Integer bulkUpdate(BulkUpdateRequest changes, int maxRows) {
+        List<Long> locked = lockIds(changes.getFilter(), changes.getIds(), maxRows);
+        if (locked == null) {
+            return null;
+        }
+
+        // Misma precisión que la columna (microsegundos)
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        int affected = 0;
+        for (int from = 0; from < locked.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = locked.subList(from, Math.min(from + IN_CHUNK_SIZE, locked.size()));
+            CriteriaUpdate<Book> update = builder.createCriteriaUpdate(Book.class);
+            Root<Book> root = update.from(Book.class);
+            if (changes.getStatus() != null) {
+                update.set(root.<Boolean>get(Consts.STATUS), changes.getStatus());
+            }
+            if (changes.getCategoryId() != null) {
+                update.set(root.<Long>get(Consts.FK_ID_CATEGORY), changes.getCategoryId());
+            }
+            if (changes.getPrice() != null) {
+                update.set(root.<BigDecimal>get(Consts.PRICE), changes.getPrice());
+            }
+            if (changes.getPriceFactor() != null) {
+                Path<BigDecimal> price = root.get(Consts.PRICE);
+                update.set(price, builder.round(builder.prod(price, changes.getPriceFactor()), 2));
+            }
+            // Un UPDATE masivo no pasa por @Version ni @UpdateTimestamp
+            Path<Long> version = root.get(VERSION);
+            update.set(version, builder.sum(version, 1L));
+            update.set(root.<Instant>get(LAST_MODIFIED), now);
+            update.where(root.get(Consts.ID).in(chunk));
+            affected += entityManager.createQuery(update).executeUpdate();
+        }
+
+        // Las entidades ya cargadas en el contexto no reflejan el UPDATE: se releen de base de datos
+        entityManager.clear();
+        for (int from = 0; from < locked.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = locked.subList(from, Math.min(from + IN_CHUNK_SIZE, locked.size()));
+            for (Book book : repository.findAllById(chunk)) {
+                eventPublisher.publishEvent(BookChangedEvent.updated(book));
+            }
+            entityManager.clear();
+        }
+        return affected;
+    }
+
+    /**
+     * Borrado masivo con sentencias DELETE por conjuntos, igual que {@link #bulkUpdate}.
+     * @return Filas borradas, o null si el filtro abarca más de {@code maxRows} libros (no se borra ninguno).
+     */
+    @Transactional
+    public Integer bulkDelete(BulkDeleteRequest request, int maxRows) {
+        List<Long> locked = lockIds(request.getFilter(), request.getIds(), maxRows);
+        if (locked == null) {
+            return null;
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        int affected = 0;
+        for (int from = 0; from < locked.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = locked.subList(from, Math.min(from + IN_CHUNK_SIZE, locked.size()));
+            CriteriaDelete<Book> delete = builder.createCriteriaDelete(Book.class);
+            delete.where(delete.from(Book.class).get(Consts.ID).in(chunk));
+            affected += entityManager.createQuery(delete).executeUpdate();
+        }
+        entityManager.clear();
+        locked.forEach(id -> eventPublisher.publishEvent(BookChangedEvent.deleted(id)));
+        return affected;
+    }
+
+    /**
+     * IDs de los libros que cumplen el filtro (y están en {@code ids}, si se indican), bloqueados para
+     * escritura en orden ascendente para que dos operaciones masivas no se bloqueen mutuamente.
+     * El filtro se evalúa siempre en base de datos, no con los índices en memoria.
+     * @return Los IDs, o null si son más de {@code maxRows}.
+     */
+    private List<Long> lockIds(BookQuery filter, Collection<Long> ids, int maxRows) {
+        SearchCriteria<Book> spec = new SearchCriteria<>();
+        if (filter != null) {
+            String title = (filter.getTitle() == null) ? null : filter.getTitle().trim();
+            String language = (filter.getLanguage() == null) ? null : filter.getLanguage().trim();
+            buildStatements(title, language, filter.getCategoryId(), filter.getStatus()).forEach(spec::add);
+            buildRangeStatements(filter).forEach(spec::add);
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        Path<Long> id = root.get(Consts.ID);
+        Predicate where = spec.toPredicate(root, query, builder);
+        if (ids != null) {
+            where = builder.and(where, id.in(ids));
+        }
+        List<Long> locked = entityManager.createQuery(query.select(id).where(where).orderBy(builder.asc(id)))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(maxRows + 1)
+                .getResultList();
+        return (locked.size() > maxRows) ? null : locked;
+    }
+
+    /**
+     * ETag de la página de resultados de la consulta (con o sin filtros): cambia con cualquier
+     * escritura confirmada, así que puede calcularse sin ejecutar la búsqueda.
+     */
+    public String searchETag(BookQuery query) {
+        // La vista cambia el cuerpo pero no los resultados: entra en el ETag y no en la clave de búsqueda
+        SearchKey key = SearchKey.of(query);
+        return catalogueVersion.eTag(query.isSummary() ? List.of(key, BookQuery.VIEW_SUMMARY) : key);
     }
 
     /**
@@ -52,34 +473,265 @@ public class BookRepository {
      *   - language (igual, EQUAL)
      *   - categoryId (igual, EQUAL)
      *   - status (igual, EQUAL)
+     *   - price, numberPages, reviewScore, publicationDate (rangos, extremos incluidos)
      *
      * Si alguno de los parámetros es null/ vacío, se omite en la consulta.
+     * El resultado se ordena por el campo pedido (ID por defecto) y se pagina por keyset (after, limit).
+     *
+     * Los IDs resultantes se cachean por combinación normalizada de filtros junto con la versión
+     * del catálogo; mientras no haya escrituras, las búsquedas repetidas no consultan la base de datos.
+     */
+    public List<Book> search(BookQuery query) {
+        return search(query, Book.class);
+    }
+
+    /**
+     * Como {@link #search(BookQuery)}, con la vista reducida. Comparte la caché de IDs con la búsqueda completa.
      */
-    public List<Book> search(String title,
-                             String language,
-                             Long categoryId,
-                             Boolean status) {
+    public List<BookSummary> searchSummaries(BookQuery query) {
+        return search(query, BookSummary.class);
+    }
+
+    private <R> List<R> search(BookQuery query, Class<R> type) {
+
+        // La versión se lee antes de consultar: si hay una escritura concurrente, la entrada nace caducada
+        long version = catalogueVersion.current();
+        SearchKey key = SearchKey.of(query);
+        List<Long> cachedIds = searchResultCache.get(key, version);
+        if (cachedIds != null) {
+            return hydrate(cachedIds, type);
+        }
+
+        List<R> result = findByQuery(query, type);
+        searchResultCache.put(key, version, result.stream().map(BookRepository::idOf).toList());
+        return result;
+    }
+
+    private <R> List<R> findByQuery(BookQuery query, Class<R> type) {
+        String title = (query.getTitle() == null) ? null : query.getTitle().trim();
+        String language = (query.getLanguage() == null) ? null : query.getLanguage().trim();
+        List<SearchStatement> statements = buildStatements(title, language, query.getCategoryId(), query.getStatus());
+        SortField sort = SortField.fromProperty(query.getSort());
+        Long after = query.getAfter();
+        int limit = query.getLimit();
 
+        // Los criterios cubiertos por los índices en memoria (texto y facetas) se resuelven como
+        // intersección de bitmaps; el resto se evalúan en la base de datos
         SearchCriteria<Book> spec = new SearchCriteria<>();
+        RoaringBitmap candidates = null;
+        for (SearchStatement statement : statements) {
+            RoaringBitmap matches = resolveInMemory(statement);
+            if (matches == null) {
+                spec.add(statement);
+            } else {
+                candidates = (candidates == null) ? matches : RoaringBitmap.and(candidates, matches);
+            }
+        }
+
+        // Todo resuelto en memoria: rangos y orden sobre la proyección columnar, sin base de datos
+        if (spec.isEmpty() && columnIndex.isReady()) {
+            long[] ids = columnIndex.query(candidates, query, after, limit);
+            return hydrate(Arrays.stream(ids).boxed().toList(), type);
+        }
+
+        buildRangeStatements(query).forEach(spec::add);
+        if (sort == SortField.ID && !query.isDescending()) {
+            return (candidates == null) ? findPage(type, spec, after, limit) : findPage(type, candidates, spec, after, limit);
+        }
+
+        // Orden distinto del ID ascendente sin índices disponibles: toda la consulta en base de datos
+        SearchCriteria<Book> all = new SearchCriteria<>();
+        statements.forEach(all::add);
+        buildRangeStatements(query).forEach(all::add);
+        return findSortedPage(type, all, sort, query.isDescending(), after, limit);
+    }
+
+    /**
+     * Convierte IDs resueltos en memoria en libros o resúmenes: desde el modelo compacto si está cargado
+     * (sin caché ni base de datos), o desde la caché / base de datos mientras se construye.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> List<R> hydrate(List<Long> ids, Class<R> type) {
+        if (type == BookSummary.class) {
+            return (List<R>) (compactCatalogue.isReady() ? compactCatalogue.toSummaries(ids) : getSummariesById(ids));
+        }
+        return (List<R>) (compactCatalogue.isReady() ? compactCatalogue.toBooks(ids) : getAllById(ids));
+    }
+
+    /**
+     * Resúmenes de los libros indicados, en el mismo orden, con proyecciones {@code IN} por bloques.
+     */
+    private List<BookSummary> getSummariesById(List<Long> ids) {
+        Map<Long, BookSummary> found = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            for (BookSummary summary : repository.findSummariesByIdIn(ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size())))) {
+                found.put(summary.id(), summary);
+            }
+        }
+        List<BookSummary> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            BookSummary summary = found.get(id);
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    private static Long idOf(Object result) {
+        return (result instanceof BookSummary summary) ? summary.id() : ((Book) result).getId();
+    }
+
+    /**
+     * Libros activos mejor puntuados de una categoría o de un idioma (se usa la categoría si se indican ambos),
+     * leídos del ranking en memoria y resueltos por la caché de libros, en orden.
+     * @param tiebreak  Desempate a igual puntuación: {@link SortField#PRICE} o {@link SortField#PUBLICATION_DATE}.
+     * @return Libros en orden de ranking, o null si el ranking aún no está construido.
+     */
+    public List<Book> topRated(Long categoryId, String language, SortField tiebreak, int limit) {
+        if (!rankingIndex.isReady()) {
+            return null;
+        }
+        List<Long> ids = (categoryId != null)
+                ? rankingIndex.topByCategory(categoryId, tiebreak, limit)
+                : rankingIndex.topByLanguage(language, tiebreak, limit);
+        return getAllById(ids);
+    }
+
+    /**
+     * Recuentos por valor de las facetas (idioma, categoría, estado) para los filtros indicados,
+     * calculados íntegramente en memoria. Retorna null si los índices aún no están construidos.
+     */
+    public Map<String, Map<String, Long>> facetCounts(String title,
+                                                      String language,
+                                                      Long categoryId,
+                                                      Boolean status) {
+        Map<String, RoaringBitmap> filters = new HashMap<>();
+        for (SearchStatement statement : buildStatements(title, language, categoryId, status)) {
+            RoaringBitmap matches = resolveInMemory(statement);
+            if (matches == null) {
+                return null;
+            }
+            filters.put(statement.getKey(), matches);
+        }
+        return facetIndex.isReady() ? facetIndex.counts(filters) : null;
+    }
+
+    private List<SearchStatement> buildStatements(String title,
+                                                  String language,
+                                                  Long categoryId,
+                                                  Boolean status) {
+        List<SearchStatement> statements = new ArrayList<>();
 
         if (StringUtils.hasLength(title)) {
             // MATCH en campo “title”
-            spec.add(new SearchStatement(Consts.TITLE, title, SearchOperation.MATCH));
+            statements.add(new SearchStatement(Consts.TITLE, title, SearchOperation.MATCH));
         }
         if (StringUtils.hasLength(language)) {
             // EQUAL en campo “language”
-            spec.add(new SearchStatement(Consts.LANGUAGE, language, SearchOperation.EQUAL));
+            statements.add(new SearchStatement(Consts.LANGUAGE, language, SearchOperation.EQUAL));
         }
         if (categoryId != null) {
             // EQUAL en campo “fk_id_category”
-            spec.add(new SearchStatement(Consts.FK_ID_CATEGORY, categoryId, SearchOperation.EQUAL));
+            statements.add(new SearchStatement(Consts.FK_ID_CATEGORY, categoryId, SearchOperation.EQUAL));
         }
         if (status != null) {
             // EQUAL en campo “status”
-            spec.add(new SearchStatement(Consts.STATUS, status, SearchOperation.EQUAL));
+            statements.add(new SearchStatement(Consts.STATUS, status, SearchOperation.EQUAL));
+        }
+        return statements;
+    }
+
+    private List<SearchStatement> buildRangeStatements(BookQuery query) {
+        List<SearchStatement> statements = new ArrayList<>();
+        addRange(statements, Consts.PRICE, query.getMinPrice(), query.getMaxPrice());
+        addRange(statements, Consts.NUMBER_PAGES, query.getMinPages(), query.getMaxPages());
+        addRange(statements, Consts.REVIEW_SCORE, query.getMinReviewScore(), query.getMaxReviewScore());
+        addRange(statements, Consts.PUBLICATION_DATE, query.getPublishedFrom(), query.getPublishedTo());
+        return statements;
+    }
+
+    private static void addRange(List<SearchStatement> statements, String key, Object min, Object max) {
+        if (min != null) {
+            statements.add(new SearchStatement(key, min, SearchOperation.GREATER_THAN_EQUAL));
+        }
+        if (max != null) {
+            statements.add(new SearchStatement(key, max, SearchOperation.LESS_THAN_EQUAL));
+        }
+    }
+
+    /**
+     * Resuelve un criterio con los índices en memoria: MATCH/MATCH_END con el índice de texto y
+     * EQUAL sobre facetas con los bitmaps. Retorna null si no hay índice listo para ese criterio.
+     */
+    private RoaringBitmap resolveInMemory(SearchStatement statement) {
+        SearchOperation operation = statement.getOperation();
+        if ((operation == SearchOperation.MATCH || operation == SearchOperation.MATCH_END)
+                && textIndex.isReady() && textIndex.supports(statement.getKey())) {
+            return textIndex.match(statement.getKey(), statement.getValue().toString(),
+                    operation == SearchOperation.MATCH_END);
+        }
+        if (operation == SearchOperation.EQUAL
+                && facetIndex.isReady() && facetIndex.supports(statement.getKey())) {
+            return facetIndex.match(statement.getKey(), statement.getValue());
+        }
+        return null;
+    }
+
+    /**
+     * Página por keyset evaluando todos los criterios en la base de datos.
+     */
+    private <R> List<R> findPage(Class<R> type, SearchCriteria<Book> spec, Long after, int limit) {
+        return searchQueries.findPage(type, spec, SortField.ID, false, after, null, limit);
+    }
+
+    /**
+     * Página por keyset en base de datos ordenada por (campo, id). El cursor se traduce al par
+     * (valor del campo en el libro {@code after}, after); los NULL ordenan primero, como en MySQL.
+     * Ordenando por ID basta con el propio cursor, exista o no el libro.
+     */
+    private <R> List<R> findSortedPage(Class<R> type, SearchCriteria<Book> spec, SortField sort, boolean descending,
+                                       Long after, int limit) {
+        Object value = null;
+        if (after != null && sort != SortField.ID) {
+            Book cursor = getById(after);
+            if (cursor == null) {
+                return new ArrayList<>();
+            }
+            value = sort.valueOf(cursor);
+        }
+        return searchQueries.findPage(type, spec, sort, descending, after, value, limit);
+    }
+
+    /**
+     * Página por keyset sobre un conjunto de IDs candidatos ya resuelto en memoria. Los candidatos se
+     * recorren en orden ascendente por bloques; si quedan criterios pendientes se aplican en la base de
+     * datos con un {@code IN} acotado por bloque, y si no, los libros se leen directamente por ID.
+     */
+    private <R> List<R> findPage(Class<R> type, RoaringBitmap candidates, SearchCriteria<Book> spec, Long after, int limit) {
+        List<R> result = new ArrayList<>(limit);
+        if (after != null && after >= Integer.MAX_VALUE) {
+            return result;
         }
 
-        // El método findAll(spec) viene de JpaSpecificationExecutor<Book>
-        return repository.findAll(spec);
+        PeekableIntIterator it = candidates.getIntIterator();
+        if (after != null) {
+            it.advanceIfNeeded((int) (after + 1));
+        }
+        while (result.size() < limit && it.hasNext()) {
+            int remaining = limit - result.size();
+            int chunkSize = spec.isEmpty() ? remaining : IN_CHUNK_SIZE;
+            List<Long> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && it.hasNext()) {
+                chunk.add((long) it.next());
+            }
+
+            if (spec.isEmpty()) {
+                result.addAll(hydrate(chunk, type));
+            } else {
+                result.addAll(searchQueries.findWithin(type, spec, chunk, remaining));
+            }
+        }
+        return result;
     }
 }
@@ -0,0 +1,181 @@
+package com.relatos_de_papel.book.data.repository;
+
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SearchCriteria;
+import com.relatos_de_papel.book.data.utils.SearchOperation;
+import com.relatos_de_papel.book.data.utils.SearchStatement;
+import com.relatos_de_papel.book.data.utils.SortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Búsquedas en base de datos compiladas por "forma": cada combinación distinta de criterios
+ * (campo, operación), orden, sentido y tipo de cursor se traduce una sola vez a una consulta JPQL
+ * parametrizada. Las búsquedas siguientes con la misma forma solo enlazan valores y, como el texto
+ * de la consulta es idéntico, Hibernate reutiliza su interpretación cacheada en lugar de traducir
+ * un árbol Criteria nuevo en cada petición.
+ *
+ * El resultado puede ser la entidad o la vista reducida {@link BookSummary}, que se construye en la
+ * propia consulta y solo lee sus columnas.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookSearchQueries {
+
+    /** Máximo de formas compiladas que se guardan; por encima se compilan sin cachear */
+    private static final int MAX_PLANS = 1024;
+
+    private static final String ALIAS = "b.";
+
+    private static final String SUMMARY_SELECT = "select new " + BookSummary.class.getName()
+            + "(b.id, b.title, b.price, b.image, b.status) from Book b";
+
+    /** Posición del cursor de keyset respecto al campo de orden */
+    enum Cursor { NONE, VALUE, NULL_VALUE }
+
+    record Clause(String key, SearchOperation operation) {
+    }
+
+    record Shape(Class<?> type, List<Clause> clauses, SortField sort, boolean descending, Cursor cursor, boolean withinIds) {
+    }
+
+    private final EntityManager entityManager;
+    private final Map<Shape, String> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Página por keyset ordenada por (campo, id).
+     * @param type        Book o {@link BookSummary}.
+     * @param after       ID del último libro de la página anterior (null para la primera página).
+     * @param afterValue  Valor del campo de orden en ese libro (ignorado si se ordena por ID).
+     */
+    public <R> List<R> findPage(Class<R> type, SearchCriteria<Book> criteria, SortField sort, boolean descending,
+                                Long after, Object afterValue, int limit) {
+        Cursor cursor = (after == null) ? Cursor.NONE
+                : (sort == SortField.ID || afterValue != null) ? Cursor.VALUE : Cursor.NULL_VALUE;
+        TypedQuery<R> query = prepare(type, criteria, new Shape(type, clauses(criteria), sort, descending, cursor, false));
+        if (cursor != Cursor.NONE) {
+            query.setParameter("afterId", after);
+        }
+        if (cursor == Cursor.VALUE && sort != SortField.ID) {
+            query.setParameter("afterValue", afterValue);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Libros de entre los IDs indicados que cumplen los criterios, en orden ascendente de ID.
+     */
+    public <R> List<R> findWithin(Class<R> type, SearchCriteria<Book> criteria, Collection<Long> ids, int limit) {
+        TypedQuery<R> query = prepare(type, criteria,
+                new Shape(type, clauses(criteria), SortField.ID, false, Cursor.NONE, true));
+        return query.setParameter("ids", ids).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Número de formas compiladas en caché.
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    private <R> TypedQuery<R> prepare(Class<R> type, SearchCriteria<Book> criteria, Shape shape) {
+        String jpql = plans.get(shape);
+        if (jpql == null) {
+            jpql = compile(shape);
+            if (plans.size() < MAX_PLANS) {
+                plans.putIfAbsent(shape, jpql);
+            }
+        }
+        TypedQuery<R> query = entityManager.createQuery(jpql, type);
+        List<SearchStatement> statements = criteria.getStatements();
+        for (int i = 0; i < statements.size(); i++) {
+            query.setParameter("p" + i, bindValue(statements.get(i)));
+        }
+        return query;
+    }
+
+    private static List<Clause> clauses(SearchCriteria<Book> criteria) {
+        List<SearchStatement> statements = criteria.getStatements();
+        List<Clause> clauses = new ArrayList<>(statements.size());
+        for (SearchStatement statement : statements) {
+            clauses.add(new Clause(statement.getKey(), statement.getOperation()));
+        }
+        return clauses;
+    }
+
+    private String compile(Shape shape) {
+        List<String> conditions = new ArrayList<>();
+        List<Clause> clauses = shape.clauses();
+        for (int i = 0; i < clauses.size(); i++) {
+            conditions.add(condition(clauses.get(i), "p" + i));
+        }
+        if (shape.withinIds()) {
+            conditions.add(ALIAS + Consts.ID + " in :ids");
+        }
+
+        String id = ALIAS + Consts.ID;
+        String field = ALIAS + attribute(shape.sort().getProperty());
+        boolean descending = shape.descending();
+        String next = descending ? " < " : " > ";
+        if (shape.cursor() == Cursor.VALUE) {
+            conditions.add((shape.sort() == SortField.ID) ? id + next + ":afterId"
+                    : "(" + field + next + ":afterValue"
+                      + (descending ? " or " + field + " is null" : "")
+                      + " or (" + field + " = :afterValue and " + id + next + ":afterId))");
+        } else if (shape.cursor() == Cursor.NULL_VALUE) {
+            // Los NULL ordenan primero, como en MySQL
+            conditions.add(descending ? "(" + field + " is null and " + id + " < :afterId)"
+                    : "(" + field + " is not null or " + id + " > :afterId)");
+        }
+
+        StringBuilder jpql = new StringBuilder((shape.type() == BookSummary.class) ? SUMMARY_SELECT : "select b from Book b");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        String direction = descending ? " desc" : " asc";
+        jpql.append(" order by ");
+        if (shape.sort() != SortField.ID) {
+            jpql.append(field).append(direction).append(", ");
+        }
+        return jpql.append(id).append(direction).toString();
+    }
+
+    private String condition(Clause clause, String parameter) {
+        String field = ALIAS + attribute(clause.key());
+        return switch (clause.operation()) {
+            case GREATER_THAN -> field + " > :" + parameter;
+            case LESS_THAN -> field + " < :" + parameter;
+            case GREATER_THAN_EQUAL -> field + " >= :" + parameter;
+            case LESS_THAN_EQUAL -> field + " <= :" + parameter;
+            case NOT_EQUAL -> field + " <> :" + parameter;
+            case EQUAL -> field + " = :" + parameter;
+            case MATCH, MATCH_END -> "lower(" + field + ") like :" + parameter;
+        };
+    }
+
+    /**
+     * Comprueba que la clave es un atributo de Book antes de insertarla en el texto de la consulta.
+     * @throws IllegalArgumentException si no lo es.
+     */
+    private String attribute(String key) {
+        return entityManager.getMetamodel().entity(Book.class).getAttribute(key).getName();
+    }
+
+    private static Object bindValue(SearchStatement statement) {
+        return switch (statement.getOperation()) {
+            case MATCH -> "%" + statement.getValue().toString().toLowerCase() + "%";
+            case MATCH_END -> statement.getValue().toString().toLowerCase() + "%";
+            default -> statement.getValue();
+        };
+    }
+}
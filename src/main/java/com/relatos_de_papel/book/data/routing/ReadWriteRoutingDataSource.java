@@ -0,0 +1,184 @@
+package com.relatos_de_papel.book.data.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enruta cada conexión al primario o a una réplica de lectura según la transacción en curso:
+ * solo las transacciones de solo lectura ({@code @Transactional(readOnly = true)}) van a las réplicas,
+ * repartidas por turnos entre las que están sanas. Las escrituras, el código sin transacción y las
+ * lecturas dentro de la ventana de {@link ReadYourWrites} van al primario.
+ *
+ * Debe usarse detrás de un {@code LazyConnectionDataSourceProxy}: el gestor de transacciones pide la
+ * conexión antes de marcar la transacción como de solo lectura, y el proxy retrasa la elección hasta
+ * la primera sentencia.
+ *
+ * Una réplica que falla al dar una conexión se marca caída y la petición pasa a la siguiente (o al
+ * primario); una comprobación periódica la vuelve a poner en servicio cuando responde.
+ */
+@Slf4j
+public final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    static final class Replica {
+
+        final String key;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i));
+            this.replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // Sin réplica disponible se usa el primario
+        setLenientFallback(true);
+    }
+
+    /**
+     * Comprueba las réplicas cada {@code interval} en un hilo propio.
+     */
+    public void startHealthChecks(Duration interval) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-health").daemon().factory());
+        healthChecker.scheduleWithFixedDelay(this::checkHealth,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Para las comprobaciones y cierra los pools de las réplicas (el del primario lo gestiona Spring).
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    /** Número de réplicas en servicio */
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = route();
+        return (replica != null) ? replica.key : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        for (Replica replica = route(); replica != null; replica = nextHealthy()) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credenciales explícitas: solo tienen sentido contra el primario
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Réplica para la conexión actual, o null si debe ir al primario.
+     */
+    private Replica route() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || readYourWrites.isRecent()) {
+            return null;
+        }
+        return nextHealthy();
+    }
+
+    /**
+     * Siguiente réplica sana por turnos, o null si no queda ninguna.
+     */
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Réplica {} fuera de servicio: {}", replica.key, e.getMessage());
+        }
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("La conexión no es válida");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Réplica {} de nuevo en servicio", replica.key);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            } catch (RuntimeException e) {
+                // Los pools lanzan excepciones no comprobadas al cerrarse o mal configurados
+                markDown(replica, new SQLException(e.getMessage(), e));
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.relatos_de_papel.book.data.routing;
+
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Ventana de lectura tras escritura: durante {@code books.datasource.read-your-writes-window} después
+ * de cada escritura de esta instancia las lecturas van al primario, porque las réplicas pueden no
+ * tenerla todavía. Así tampoco se recarga en la caché o en los índices un libro obsoleto leído de
+ * una réplica justo después de invalidarlo. Los cambios de otras instancias (replicados desde el outbox)
+ * abren la misma ventana.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final long windowNanos;
+    private volatile long lastWrite;
+    private volatile boolean written;
+
+    public ReadYourWrites(@Value("${books.datasource.read-your-writes-window:2s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Indica si hubo una escritura dentro de la ventana (o hay una confirmándose).
+     */
+    public boolean isRecent() {
+        return written && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    public void markWrite() {
+        lastWrite = System.nanoTime();
+        written = true;
+    }
+
+    // Antes de confirmar para cubrir la propia confirmación, y de nuevo al confirmar para que la
+    // ventana cuente desde ahí aunque la transacción haya sido larga
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeCommit(BookChangedEvent event) {
+        markWrite();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterCommit(BookChangedEvent event) {
+        markWrite();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeCommit(BooksCreatedEvent event) {
+        markWrite();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterCommit(BooksCreatedEvent event) {
+        markWrite();
+    }
+}
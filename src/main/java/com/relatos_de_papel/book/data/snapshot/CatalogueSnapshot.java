@@ -0,0 +1,451 @@
+package com.relatos_de_papel.book.data.snapshot;
+
+import com.relatos_de_papel.book.data.index.BookView;
+import com.relatos_de_papel.book.data.model.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Instantánea binaria del catálogo en un fichero mapeado en memoria (solo lectura).
+ *
+ * Formato: cabecera de {@value #HEADER_SIZE} bytes, una columna de ancho fijo por campo
+ * (todas las filas seguidas, ver {@link Column}) y una zona de texto con cada cadena como longitud (int)
+ * más sus bytes UTF-8, alineada a 4 bytes. Las columnas de texto guardan el offset de la cadena en esa
+ * zona (-1 si es null). Así se lee cualquier campo de cualquier fila por acceso directo, sin deserializar
+ * el fichero completo.
+ *
+ * El fichero se mapea en segmentos de {@value #SEGMENT_SHIFT} bits (1 GB) con offsets {@code long}, sin
+ * el límite de 2 GB de un único MappedByteBuffer. Los valores de ancho fijo están alineados y nunca
+ * cruzan de un segmento a otro; los bytes de una cadena sí pueden, y se leen por partes.
+ */
+public final class CatalogueSnapshot {
+
+    /** "BKSN" */
+    static final int MAGIC = 0x424B534E;
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int SEGMENT_SHIFT = 30;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_STRING = -1L;
+
+    /** Columnas de ancho fijo, en el orden en que se escriben (primero las de 8 bytes, por alineación) */
+    enum Column {
+        ID(8), VERSION(8), LAST_MODIFIED(8), PRICE(8), CATEGORY_ID(8), AUTHOR_ID(8),
+        TITLE(8), DESCRIPTION(8), LANGUAGE(8), ISBN(8), IMAGE(8),
+        NUMBER_PAGES(4), REVIEW_SCORE(4), PUBLICATION_DATE(4),
+        STATUS(1);
+
+        final int width;
+
+        Column(int width) {
+            this.width = width;
+        }
+
+        /** Posición de la columna en el fichero para el número de filas indicado */
+        long offset(int rows) {
+            long offset = HEADER_SIZE;
+            for (Column column : values()) {
+                if (column == this) {
+                    return offset;
+                }
+                offset += (long) column.width * rows;
+            }
+            throw new IllegalStateException();
+        }
+
+        /** Inicio de la zona de texto: tras la última columna, alineado a 8 bytes */
+        static long textStart(int rows) {
+            long end = HEADER_SIZE + Arrays.stream(values()).mapToLong(c -> c.width).sum() * rows;
+            return align(end, 8);
+        }
+    }
+
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final int rows;
+    private final Instant watermark;
+    private final Instant createdAt;
+    private final long[] columnOffsets = new long[Column.values().length];
+    private final long textStart;
+
+    private CatalogueSnapshot(ByteBuffer[] segments, int segmentShift, long size) throws IOException {
+        this.segments = segments;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        if (size < HEADER_SIZE || getInt(0) != MAGIC) {
+            throw new IOException("No es una instantánea del catálogo");
+        }
+        if (getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Versión de instantánea no soportada: " + getInt(4));
+        }
+        this.rows = getInt(8);
+        this.watermark = fromMicros(getLong(16));
+        this.createdAt = Instant.ofEpochMilli(getLong(24));
+        for (Column column : Column.values()) {
+            columnOffsets[column.ordinal()] = column.offset(rows);
+        }
+        this.textStart = Column.textStart(rows);
+        if (rows < 0 || size != textStart + getLong(32)) {
+            throw new IOException("Instantánea truncada o corrupta");
+        }
+    }
+
+    /**
+     * Mapea en memoria el fichero indicado y valida su cabecera.
+     * @throws IOException si no existe, no se puede leer o no tiene el formato esperado.
+     */
+    public static CatalogueSnapshot open(Path file) throws IOException {
+        return open(file, SEGMENT_SHIFT);
+    }
+
+    /** Como {@link #open(Path)}, con segmentos de {@code 2^segmentShift} bytes (múltiplo de 8) */
+    static CatalogueSnapshot open(Path file, int segmentShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long segmentSize = 1L << segmentShift;
+            ByteBuffer[] segments = new ByteBuffer[Math.toIntExact(Math.max(1, (size + segmentSize - 1) >>> segmentShift))];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i << segmentShift;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+            }
+            return new CatalogueSnapshot(segments, segmentShift, size);
+        }
+    }
+
+    /**
+     * Writer que va volcando las columnas a ficheros temporales en el directorio indicado.
+     */
+    public static Writer writer(Path spillDirectory) throws IOException {
+        return new Writer(spillDirectory);
+    }
+
+    /** Número de libros */
+    public int size() {
+        return rows;
+    }
+
+    /** Mayor fecha de modificación incluida en la instantánea (null si ningún libro la tiene) */
+    public Instant watermark() {
+        return watermark;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public long id(int row) {
+        return longAt(Column.ID, row);
+    }
+
+    /**
+     * Materializa la fila indicada como un Book (no gestionado por JPA).
+     */
+    public Book book(int row) {
+        long price = longAt(Column.PRICE, row);
+        int day = intAt(Column.PUBLICATION_DATE, row);
+        long lastModified = longAt(Column.LAST_MODIFIED, row);
+        return Book.builder()
+                .id(longAt(Column.ID, row))
+                .version(longAt(Column.VERSION, row))
+                .lastModified(lastModified == NULL_LONG ? null : fromMicros(lastModified))
+                .price(price == NULL_LONG ? null : BigDecimal.valueOf(price, 2))
+                .categoryId(longAt(Column.CATEGORY_ID, row))
+                .authorId(longAt(Column.AUTHOR_ID, row))
+                .numberPages(intAt(Column.NUMBER_PAGES, row))
+                .reviewScore(intAt(Column.REVIEW_SCORE, row))
+                .publicationDate(day == NULL_INT ? null : LocalDate.ofEpochDay(day))
+                .title(string(Column.TITLE, row))
+                .description(string(Column.DESCRIPTION, row))
+                .language(string(Column.LANGUAGE, row))
+                .isbn(string(Column.ISBN, row))
+                .image(string(Column.IMAGE, row))
+                .status(getByte(position(Column.STATUS, row)) != 0)
+                .build();
+    }
+
+    private long longAt(Column column, int row) {
+        return getLong(position(column, row));
+    }
+
+    private int intAt(Column column, int row) {
+        return getInt(position(column, row));
+    }
+
+    private String string(Column column, int row) {
+        long offset = longAt(column, row);
+        if (offset == NULL_STRING) {
+            return null;
+        }
+        long position = textStart + offset;
+        byte[] bytes = new byte[getInt(position)];
+        position += 4;
+        // Los bytes pueden continuar en el segmento siguiente
+        int copied = 0;
+        while (copied < bytes.length) {
+            ByteBuffer segment = segments[(int) (position >>> segmentShift)];
+            int index = (int) (position & segmentMask);
+            int length = Math.min(bytes.length - copied, segment.capacity() - index);
+            segment.get(index, bytes, copied, length);
+            copied += length;
+            position += length;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long position(Column column, int row) {
+        return columnOffsets[column.ordinal()] + (long) column.width * row;
+    }
+
+    private long getLong(long position) {
+        return segments[(int) (position >>> segmentShift)].getLong((int) (position & segmentMask));
+    }
+
+    private int getInt(long position) {
+        return segments[(int) (position >>> segmentShift)].getInt((int) (position & segmentMask));
+    }
+
+    private byte getByte(long position) {
+        return segments[(int) (position >>> segmentShift)].get((int) (position & segmentMask));
+    }
+
+    private static long align(long position, int alignment) {
+        return (position + alignment - 1) & -alignment;
+    }
+
+    private static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return (micros == NULL_LONG) ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Escribe las filas según llegan, cada columna en su fichero temporal, y al final las concatena en
+     * la instantánea: la memoria usada no depende del número de libros. Los valores repetidos (idioma,
+     * imagen) se escriben cada vez; se cambia algo de espacio en disco por no mantener un pool en el heap.
+     * Hay que cerrarlo siempre ({@link #close}) para borrar los temporales.
+     */
+    public static final class Writer implements Closeable {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final Path[] spills = new Path[Column.values().length + 1];
+        private final DataOutputStream[] columns = new DataOutputStream[Column.values().length];
+        private final DataOutputStream text;
+        private long textBytes;
+        private int rows;
+        private Instant watermark;
+
+        private Writer(Path spillDirectory) throws IOException {
+            Files.createDirectories(spillDirectory);
+            try {
+                for (int i = 0; i < spills.length; i++) {
+                    spills[i] = Files.createTempFile(spillDirectory, "catalogue", ".spill");
+                    spills[i].toFile().deleteOnExit();
+                }
+                for (Column column : Column.values()) {
+                    columns[column.ordinal()] = open(spills[column.ordinal()]);
+                }
+                text = open(spills[spills.length - 1]);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public Writer add(Book book) {
+            try {
+                putLong(Column.ID, book.getId());
+                putLong(Column.VERSION, (book.getVersion() == null) ? 0L : book.getVersion());
+                putLong(Column.LAST_MODIFIED, (book.getLastModified() == null) ? NULL_LONG : toMicros(book.getLastModified()));
+                putLong(Column.PRICE, (book.getPrice() == null) ? NULL_LONG
+                        : book.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+                putLong(Column.CATEGORY_ID, book.getCategoryId());
+                putLong(Column.AUTHOR_ID, book.getAuthorId());
+                putString(Column.TITLE, book.getTitle());
+                putString(Column.DESCRIPTION, book.getDescription());
+                putString(Column.LANGUAGE, book.getLanguage());
+                putString(Column.ISBN, book.getIsbn());
+                putString(Column.IMAGE, book.getImage());
+                putInt(Column.NUMBER_PAGES, book.getNumberPages());
+                putInt(Column.REVIEW_SCORE, book.getReviewScore());
+                putInt(Column.PUBLICATION_DATE, (book.getPublicationDate() == null) ? NULL_INT
+                        : Math.toIntExact(book.getPublicationDate().toEpochDay()));
+                columns[Column.STATUS.ordinal()].writeByte(book.isStatus() ? 1 : 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (book.getLastModified() != null && (watermark == null || book.getLastModified().isAfter(watermark))) {
+                watermark = book.getLastModified();
+            }
+            rows++;
+            return this;
+        }
+
+        /**
+         * Añade el libro directamente desde el catálogo compacto, sin materializarlo como Book.
+         */
+        public Writer add(BookView view) {
+            try {
+                putLong(Column.ID, view.getId());
+                putLong(Column.VERSION, view.getVersion());
+                Instant lastModified = view.getLastModified();
+                putLong(Column.LAST_MODIFIED, (lastModified == null) ? NULL_LONG : toMicros(lastModified));
+                putLong(Column.PRICE, view.getPriceCents());     // mismo marcador de nulo (Long.MIN_VALUE)
+                putLong(Column.CATEGORY_ID, view.getCategoryId());
+                putLong(Column.AUTHOR_ID, view.getAuthorId());
+                putString(Column.TITLE, view.getTitle());
+                putString(Column.DESCRIPTION, view.getDescription());
+                putString(Column.LANGUAGE, view.getLanguage());
+                putString(Column.ISBN, view.getIsbn());
+                putString(Column.IMAGE, view.getImage());
+                putInt(Column.NUMBER_PAGES, view.getNumberPages());
+                putInt(Column.REVIEW_SCORE, view.getReviewScore());
+                LocalDate publicationDate = view.getPublicationDate();
+                putInt(Column.PUBLICATION_DATE, (publicationDate == null) ? NULL_INT
+                        : Math.toIntExact(publicationDate.toEpochDay()));
+                columns[Column.STATUS.ordinal()].writeByte(view.isStatus() ? 1 : 0);
+                if (lastModified != null && (watermark == null || lastModified.isAfter(watermark))) {
+                    watermark = lastModified;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+            return this;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        /**
+         * Escribe la instantánea en un fichero temporal y lo mueve de forma atómica al destino,
+         * de modo que un lector nunca ve un fichero a medio escribir.
+         */
+        public void writeTo(Path file) throws IOException {
+            for (DataOutputStream column : columns) {
+                column.flush();
+            }
+            text.flush();
+
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(rows).putInt(0)
+                            .putLong(watermark == null ? NULL_LONG : toMicros(watermark))
+                            .putLong(System.currentTimeMillis())
+                            .putLong(textBytes);
+                    header.clear();
+                    writeFully(out, header);
+                    for (Column column : Column.values()) {
+                        append(out, spills[column.ordinal()]);
+                    }
+                    writeFully(out, ByteBuffer.allocate((int) (Column.textStart(rows) - out.position())));
+                    append(out, spills[spills.length - 1]);
+                    out.force(true);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        /** Borra los ficheros temporales */
+        @Override
+        public void close() {
+            for (DataOutputStream column : columns) {
+                closeQuietly(column);
+            }
+            closeQuietly(text);
+            for (Path spill : spills) {
+                try {
+                    if (spill != null) {
+                        Files.deleteIfExists(spill);
+                    }
+                } catch (IOException e) {
+                    // Se borrará al salir (deleteOnExit)
+                }
+            }
+        }
+
+        private void putLong(Column column, long value) throws IOException {
+            columns[column.ordinal()].writeLong(value);
+        }
+
+        private void putInt(Column column, int value) throws IOException {
+            columns[column.ordinal()].writeInt(value);
+        }
+
+        private void putString(Column column, String value) throws IOException {
+            if (value == null) {
+                putLong(column, NULL_STRING);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putLong(column, textBytes);
+            text.writeInt(bytes.length);
+            text.write(bytes);
+            int padding = (int) (align(bytes.length, 4) - bytes.length);
+            for (int i = 0; i < padding; i++) {
+                text.writeByte(0);
+            }
+            textBytes += 4 + bytes.length + padding;
+        }
+
+        private static DataOutputStream open(Path spill) throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spill), BUFFER_SIZE));
+        }
+
+        private static void append(FileChannel out, Path spill) throws IOException {
+            try (FileChannel in = FileChannel.open(spill, StandardOpenOption.READ)) {
+                long size = in.size();
+                long copied = 0;
+                while (copied < size) {
+                    copied += in.transferTo(copied, size - copied, out);
+                }
+            }
+        }
+
+        private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+
+        private static void closeQuietly(DataOutputStream stream) {
+            if (stream == null) {
+                return;
+            }
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Solo se descartan los temporales
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.relatos_de_papel.book.data.snapshot;
+
+import com.relatos_de_papel.book.data.cache.CatalogueVersion;
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guarda y recupera la instantánea del catálogo ({@link CatalogueSnapshot}) en disco.
+ * Se reescribe periódicamente, solo si el catálogo cambió desde la última escritura.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogueSnapshotStore {
+
+    private final BookRepository repository;
+    private final CatalogueVersion catalogueVersion;
+    private final CompactCatalogue compactCatalogue;
+
+    @Value("${books.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${books.snapshot.path:data/catalogue.snapshot}")
+    private Path path;
+
+    @Value("${books.snapshot.interval:10m}")
+    private Duration interval;
+
+    // Versión del catálogo que refleja el fichero en disco (-1: desconocida)
+    private volatile long writtenVersion = -1;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("catalogue-snapshot").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::writeIfChanged,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Abre la última instantánea guardada.
+     * @return La instantánea, o null si está deshabilitada, no existe o no es válida.
+     */
+    public CatalogueSnapshot open() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return CatalogueSnapshot.open(path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Instantánea del catálogo no válida ({}), se ignora: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Crea un writer que vuelca las columnas junto a la instantánea.
+     * @return El writer, o null si está deshabilitada o no se pueden crear los temporales.
+     */
+    public CatalogueSnapshot.Writer writer() {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            return CatalogueSnapshot.writer(path.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            log.warn("No se pudo preparar la instantánea del catálogo en {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe la instantánea acumulada en el writer y lo cierra.
+     * @param version  Versión del catálogo leída antes de empezar a recorrerlo.
+     */
+    public void write(CatalogueSnapshot.Writer writer, long version) {
+        long start = System.currentTimeMillis();
+        try (writer) {
+            writer.writeTo(path);
+            writtenVersion = version;
+            log.info("Instantánea del catálogo escrita en {}: {} libros en {} ms",
+                    path, writer.size(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo escribir la instantánea del catálogo en {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Indica que el fichero en disco ya refleja la versión del catálogo indicada.
+     */
+    public void markCurrent(long version) {
+        writtenVersion = version;
+    }
+
+    private void writeIfChanged() {
+        long version = catalogueVersion.current();
+        if (version == writtenVersion) {
+            return;
+        }
+        CatalogueSnapshot.Writer writer = writer();
+        if (writer == null) {
+            return;
+        }
+        try {
+            // Con el modelo compacto cargado la instantánea se escribe desde memoria, sin recorrer la tabla
+            // ni materializar los libros
+            if (compactCatalogue.isReady()) {
+                compactCatalogue.forEach(writer::add);
+            } else {
+                repository.forEachBook(writer::add);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error recorriendo el catálogo para la instantánea: {}", e.getMessage());
+            writer.close();
+            return;
+        }
+        write(writer, version);
+    }
+}
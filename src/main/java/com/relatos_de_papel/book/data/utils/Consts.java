@@ -9,9 +9,10 @@ public final class Consts {
         // No permitir instanciación
     }
 
+    public static final String ID               = "id";
     public static final String TITLE            = "title";
     public static final String DESCRIPTION      = "description";
-    public static final String PUBLICATION_DATE = "publication_date";
+    public static final String PUBLICATION_DATE = "publicationDate";
     public static final String LANGUAGE         = "language";
     public static final String ISBN             = "isbn";
     public static final String NUMBER_PAGES     = "numberPages";   // ojo: en Specification usamos la propiedad Java, no la columna SQL
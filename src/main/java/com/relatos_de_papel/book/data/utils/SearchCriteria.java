@@ -2,20 +2,29 @@ package com.relatos_de_papel.book.data.utils;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
-import java.util.LinkedList;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Especificación dinámica de JPA para filtrar entidades.
  * @param <T> El tipo de entidad sobre el que se construyen los criterios.
  */
+// Specification es Serializable, pero los criterios se construyen por petición y nunca se serializan
+@SuppressWarnings("serial")
 public class SearchCriteria<T> implements Specification<T> {
 
-    private final List<SearchStatement> list = new LinkedList<>();
+    private final List<SearchStatement> list = new ArrayList<>();
 
     /**
      * Agrega un nuevo criterio (clave, valor, operación) al listado.
@@ -24,26 +33,30 @@ public class SearchCriteria<T> implements Specification<T> {
         list.add(criteria);
     }
 
+    /**
+     * Indica si no hay ningún criterio (la especificación no filtra nada).
+     */
+    public boolean isEmpty() {
+        return list.isEmpty();
+    }
+
+    /**
+     * Criterios en el orden en que se agregaron (solo lectura).
+     */
+    public List<SearchStatement> getStatements() {
+        return Collections.unmodifiableList(list);
+    }
+
     @Override
     public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
-        List<Predicate> predicates = new LinkedList<>();
+        List<Predicate> predicates = new ArrayList<>(list.size());
         for (SearchStatement criteria : list) {
             switch (criteria.getOperation()) {
                 case GREATER_THAN:
-                    predicates.add(builder.greaterThan(
-                            root.get(criteria.getKey()), criteria.getValue().toString()));
-                    break;
                 case LESS_THAN:
-                    predicates.add(builder.lessThan(
-                            root.get(criteria.getKey()), criteria.getValue().toString()));
-                    break;
                 case GREATER_THAN_EQUAL:
-                    predicates.add(builder.greaterThanOrEqualTo(
-                            root.get(criteria.getKey()), criteria.getValue().toString()));
-                    break;
                 case LESS_THAN_EQUAL:
-                    predicates.add(builder.lessThanOrEqualTo(
-                            root.get(criteria.getKey()), criteria.getValue().toString()));
+                    predicates.add(range(root, builder, criteria));
                     break;
                 case NOT_EQUAL:
                     predicates.add(builder.notEqual(
@@ -68,4 +81,89 @@ public class SearchCriteria<T> implements Specification<T> {
         // Combina todos los Predicates con AND
         return builder.and(predicates.toArray(new Predicate[0]));
     }
+
+    /**
+     * Comparación de rango (precio, páginas, fechas...) con el valor convertido al tipo Java del atributo,
+     * de modo que se compare como número o fecha y no como cadena.
+     * @throws IllegalArgumentException si el atributo no admite rangos o el valor no es de su tipo.
+     */
+    private static Predicate range(Root<?> root, CriteriaBuilder builder, SearchStatement criteria) {
+        String key = criteria.getKey();
+        Object value = criteria.getValue();
+        Class<?> type = root.get(key).getJavaType();
+        if (type == BigDecimal.class) {
+            return range(builder, root.get(key), criteria.getOperation(), toNumber(criteria));
+        }
+        if (type == Integer.class || type == int.class) {
+            return range(builder, root.get(key), criteria.getOperation(), exact(criteria, BigDecimal::intValueExact));
+        }
+        if (type == Long.class || type == long.class) {
+            return range(builder, root.get(key), criteria.getOperation(), exact(criteria, BigDecimal::longValueExact));
+        }
+        if (type == LocalDate.class) {
+            LocalDate date = (value instanceof String text) ? parse(criteria, text) : cast(criteria, LocalDate.class);
+            return range(builder, root.get(key), criteria.getOperation(), date);
+        }
+        if (type == Instant.class) {
+            return range(builder, root.get(key), criteria.getOperation(), cast(criteria, Instant.class));
+        }
+        if (type == String.class) {
+            return range(builder, root.get(key), criteria.getOperation(), cast(criteria, String.class));
+        }
+        throw new IllegalArgumentException("El campo " + key + " (" + type.getSimpleName()
+                + ") no admite comparaciones de rango");
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate range(CriteriaBuilder builder, Path<Y> path,
+                                                                    SearchOperation operation, Y value) {
+        return switch (operation) {
+            case GREATER_THAN -> builder.greaterThan(path, value);
+            case LESS_THAN -> builder.lessThan(path, value);
+            case GREATER_THAN_EQUAL -> builder.greaterThanOrEqualTo(path, value);
+            case LESS_THAN_EQUAL -> builder.lessThanOrEqualTo(path, value);
+            default -> throw new IllegalArgumentException(operation + " no es una comparación de rango");
+        };
+    }
+
+    private static BigDecimal toNumber(SearchStatement criteria) {
+        Object value = criteria.getValue();
+        if (value instanceof BigDecimal number) {
+            return number;
+        }
+        try {
+            // Cualquier otro número (o su texto) sin perder precisión
+            return new BigDecimal(((value instanceof Number) ? value : cast(criteria, String.class)).toString());
+        } catch (NumberFormatException e) {
+            throw invalid(criteria, "un número");
+        }
+    }
+
+    /** Entero del tipo del atributo; un valor con decimales o fuera de rango no se trunca */
+    private static <Y> Y exact(SearchStatement criteria, Function<BigDecimal, Y> conversion) {
+        try {
+            return conversion.apply(toNumber(criteria));
+        } catch (ArithmeticException e) {
+            throw invalid(criteria, "un entero");
+        }
+    }
+
+    private static LocalDate parse(SearchStatement criteria, String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw invalid(criteria, "una fecha ISO");
+        }
+    }
+
+    private static <Y> Y cast(SearchStatement criteria, Class<Y> type) {
+        if (!type.isInstance(criteria.getValue())) {
+            throw invalid(criteria, type.getSimpleName());
+        }
+        return type.cast(criteria.getValue());
+    }
+
+    private static IllegalArgumentException invalid(SearchStatement criteria, String expected) {
+        return new IllegalArgumentException("El criterio " + criteria.getKey() + " " + criteria.getOperation()
+                + " espera " + expected + ": " + criteria.getValue());
+    }
 }
@@ -0,0 +1,47 @@
+package com.relatos_de_papel.book.data.utils;
+
+import com.relatos_de_papel.book.data.model.Book;
+
+import java.util.function.Function;
+
+/**
+ * Campos por los que se puede ordenar una búsqueda. El ID actúa siempre como desempate,
+ * de modo que el par (campo, id) es único y sirve como cursor de keyset.
+ */
+public enum SortField {
+    ID(Consts.ID, Book::getId),
+    PRICE(Consts.PRICE, Book::getPrice),
+    NUMBER_PAGES(Consts.NUMBER_PAGES, Book::getNumberPages),
+    REVIEW_SCORE(Consts.REVIEW_SCORE, Book::getReviewScore),
+    PUBLICATION_DATE(Consts.PUBLICATION_DATE, Book::getPublicationDate);
+
+    private final String property;
+    private final Function<Book, Comparable<?>> accessor;
+
+    SortField(String property, Function<Book, Comparable<?>> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+
+    /** Nombre de la propiedad Java en la entidad. */
+    public String getProperty() {
+        return property;
+    }
+
+    /** Valor del campo en el libro indicado (puede ser null, p. ej. la fecha de publicación). */
+    public Comparable<?> valueOf(Book book) {
+        return accessor.apply(book);
+    }
+
+    /**
+     * Campo correspondiente a la propiedad indicada, o ID si es null o no se reconoce.
+     */
+    public static SortField fromProperty(String property) {
+        for (SortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        return ID;
+    }
+}
@@ -0,0 +1,35 @@
+package com.relatos_de_papel.book.data.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Forma de comparación de los textos en los índices en memoria: sin distinguir mayúsculas ni acentos,
+ * como la collation de la base de datos (utf8mb4_0900_ai_ci), para que "Páramo", "PARAMO" y "paramo"
+ * encuentren los mismos libros en memoria que en MySQL.
+ */
+public final class TextFolding {
+
+    // Marcas combinantes que quedan separadas de su letra tras la descomposición (tildes, diéresis...)
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private TextFolding() {
+        // No permitir instanciación
+    }
+
+    /** Texto en minúsculas y sin acentos; null si es null */
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        // Solo ASCII (lo habitual): basta con pasar a minúsculas, sin descomponer
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+                return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
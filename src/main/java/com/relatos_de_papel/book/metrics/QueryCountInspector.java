@@ -0,0 +1,35 @@
+package com.relatos_de_papel.book.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.io.Serial;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual (sin modificarlas).
+ * {@link QueryCountFilter} pone el contador a cero al empezar cada petición y lo lee al terminar.
+ * Las sentencias lanzadas con JdbcTemplate no pasan por Hibernate y no se cuentan.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Un array de un elemento por hilo: incrementar no reserva memoria
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /** Pone a cero el contador del hilo actual */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /** Sentencias preparadas en el hilo actual desde el último {@link #reset()} */
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
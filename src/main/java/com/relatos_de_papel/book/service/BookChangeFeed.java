@@ -0,0 +1,168 @@
+package com.relatos_de_papel.book.service;
+
+import com.relatos_de_papel.book.controller.model.BookChange;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.repository.BookOutboxJpaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Flujo de cambios del catálogo leído del outbox. Los consumidores leen por offset ({@link #read})
+ * o se suscriben para recibir los cambios nuevos en cuanto se confirman (long-poll y SSE).
+ * Los cambios de esta instancia despiertan a los suscriptores al confirmarse; los de otras instancias
+ * se detectan consultando el último offset cada {@code books.changes.poll-interval}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookChangeFeed {
+
+    /**
+     * Suscriptor del flujo: recibe bloques de cambios posteriores a su cursor.
+     */
+    public interface Subscriber {
+
+        /** Último offset entregado */
+        long cursor();
+
+        /**
+         * Entrega un bloque de cambios (en orden).
+         * @return false si el suscriptor ya no quiere más cambios (se da de baja).
+         */
+        boolean deliver(List<BookChange> changes);
+    }
+
+    private final BookOutboxJpaRepository outboxRepository;
+
+    @Value("${books.changes.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${books.changes.retention:7d}")
+    private Duration retention;
+
+    @Value("${books.changes.batch-size:500}")
+    private int batchSize;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("book-changes").daemon().factory());
+        dispatcher.scheduleWithFixedDelay(this::dispatch,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Cambios posteriores al offset indicado, en orden.
+     */
+    public List<BookChange> read(long after, int limit) {
+        return outboxRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit)).stream()
+                .map(BookChange::of)
+                .toList();
+    }
+
+    /**
+     * Último offset confirmado (0 si el outbox está vacío).
+     */
+    public long latestOffset() {
+        Long max = outboxRepository.findMaxId();
+        return (max != null) ? max : 0L;
+    }
+
+    /**
+     * Registra un suscriptor; recibirá los cambios posteriores a su cursor, incluidos los ya existentes.
+     */
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        signal();
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // Los replicados se leyeron del outbox en un reparto: no hace falta otro
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.replicated")
+    @Order(BookChangedEvent.NOTIFY_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        signal();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookChangedEvent.NOTIFY_ORDER)
+    public void onBooksCreated(BooksCreatedEvent event) {
+        signal();
+    }
+
+    /**
+     * Programa un reparto; varias señales seguidas se agrupan en uno solo.
+     */
+    private void signal() {
+        if (!subscribers.isEmpty() && dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchPending.set(false);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            long latest = latestOffset();
+            for (Subscriber subscriber : subscribers) {
+                while (subscriber.cursor() < latest) {
+                    List<BookChange> changes = read(subscriber.cursor(), batchSize);
+                    if (changes.isEmpty()) {
+                        break;
+                    }
+                    if (!subscriber.deliver(changes)) {
+                        subscribers.remove(subscriber);
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // El siguiente ciclo de sondeo lo reintenta
+            log.warn("Error repartiendo cambios del catálogo: {}", e.getMessage());
+        }
+    }
+
+    private void purge() {
+        try {
+            int removed = outboxRepository.deleteCreatedBefore(Instant.now().minus(retention));
+            if (removed > 0) {
+                log.info("Eliminados {} eventos del outbox anteriores a {}", removed, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error purgando el outbox: {}", e.getMessage());
+        }
+    }
+}
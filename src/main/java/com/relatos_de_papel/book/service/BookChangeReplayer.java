@@ -0,0 +1,103 @@
+package com.relatos_de_papel.book.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.controller.model.BookChange;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.model.Book;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantiene esta instancia al día con las escrituras confirmadas por las demás: consume el outbox como un
+ * suscriptor más de {@link BookChangeFeed} y vuelve a publicar cada cambio como
+ * {@link BookChangedEvent#replicated replicado}, que actualiza índices, cachés y la versión del catálogo
+ * igual que una escritura local (el outbox no lo registra otra vez).
+ *
+ * Se recorren todos los cambios en orden de offset. Los que el catálogo compacto ya refleja (las escrituras
+ * de esta instancia, o un cambio anterior a otro ya aplicado del mismo libro) se omiten; así el estado en
+ * memoria no retrocede aunque una escritura local y una remota del mismo libro lleguen en otro orden.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookChangeReplayer implements BookChangeFeed.Subscriber, SmartInitializingSingleton {
+
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private final BookChangeFeed changeFeed;
+    private final CompactCatalogue compactCatalogue;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    /**
+     * Empieza por el último offset antes de que se construyan los índices (al arrancar la aplicación):
+     * lo anterior ya está en la base de datos que se recorre, y lo posterior se vuelve a aplicar.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        cursor.set(changeFeed.latestOffset());
+        changeFeed.subscribe(this);
+    }
+
+    @Override
+    public long cursor() {
+        return cursor.get();
+    }
+
+    /** Cambios de otras instancias aplicados en esta */
+    public long replayed() {
+        return replayed.get();
+    }
+
+    @Override
+    public boolean deliver(List<BookChange> changes) {
+        for (BookChange change : changes) {
+            // Mientras se construyen los índices todo se aplica: el cargador relee al terminar lo cambiado
+            Long version = (change.type() == BookChangedEvent.Type.DELETED) ? null : change.version();
+            if (!compactCatalogue.isReady() || !compactCatalogue.isCurrent(change.bookId(), version)) {
+                replay(change);
+            }
+            cursor.set(change.offset());
+        }
+        return true;
+    }
+
+    /**
+     * Publica el cambio con el libro guardado en el outbox (null si se eliminó). La fecha de modificación
+     * es de solo lectura en el JSON de entrada, así que se copia aparte. Si una fila falla al aplicarse,
+     * la excepción llega al reparto y se reintenta desde ella en el siguiente ciclo.
+     */
+    private void replay(BookChange change) {
+        Book book = null;
+        if (change.book() != null) {
+            try {
+                JsonNode node = objectMapper.readTree(change.book());
+                book = objectMapper.treeToValue(node, Book.class);
+                JsonNode lastModified = node.get(LAST_MODIFIED);
+                if (lastModified != null && !lastModified.isNull()) {
+                    book.setLastModified(Instant.parse(lastModified.asText()));
+                }
+            } catch (JsonProcessingException e) {
+                // No se puede aplicar nunca: se omite en lugar de bloquear el resto del flujo
+                log.error("Cambio {} del libro {} ilegible en el outbox: {}", change.offset(), change.bookId(),
+                        e.getMessage());
+                return;
+            }
+        }
+        eventPublisher.publishEvent(BookChangedEvent.replicated(change.type(), change.bookId(), book));
+        replayed.incrementAndGet();
+    }
+}
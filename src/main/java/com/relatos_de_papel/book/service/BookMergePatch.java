@@ -0,0 +1,181 @@
+package com.relatos_de_papel.book.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.relatos_de_papel.book.data.model.Book;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7386) de un Book, leído en streaming con un {@link JsonParser}.
+ * Solo guarda los campos presentes en el parche (validados uno a uno con las restricciones
+ * de la entidad) y los copia después sobre la entidad gestionada, sin construir árboles JSON
+ * ni un Book intermedio. Un valor {@code null} borra el campo; los campos desconocidos se ignoran.
+ */
+public final class BookMergePatch {
+
+    private static final int TITLE = 1;
+    private static final int DESCRIPTION = 1 << 1;
+    private static final int PUBLICATION_DATE = 1 << 2;
+    private static final int LANGUAGE = 1 << 3;
+    private static final int ISBN = 1 << 4;
+    private static final int NUMBER_PAGES = 1 << 5;
+    private static final int PRICE = 1 << 6;
+    private static final int CATEGORY_ID = 1 << 7;
+    private static final int AUTHOR_ID = 1 << 8;
+    private static final int IMAGE = 1 << 9;
+    private static final int REVIEW_SCORE = 1 << 10;
+    private static final int STATUS = 1 << 11;
+
+    private int touched;
+    private String title;
+    private String description;
+    private LocalDate publicationDate;
+    private String language;
+    private String isbn;
+    private int numberPages;
+    private BigDecimal price;
+    private Long categoryId;
+    private Long authorId;
+    private String image;
+    private int reviewScore;
+    private boolean status;
+
+    private BookMergePatch() {
+    }
+
+    /**
+     * Lee el parche completo del parser.
+     * @param bookId  ID del libro a parchear: el campo {@code id} es de solo lectura y, si aparece, debe coincidir.
+     * @throws IOException si el contenido no es JSON bien formado.
+     * @throws IllegalArgumentException si el parche no es un objeto o algún campo no es válido.
+     */
+    public static BookMergePatch read(JsonParser parser, Long bookId, Validator validator) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("El parche debe ser un objeto JSON");
+        }
+        BookMergePatch patch = new BookMergePatch();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "id" -> {
+                    if (token != JsonToken.VALUE_NULL && !Objects.equals(bookId, longValue(parser, field))) {
+                        throw new IllegalArgumentException("id: no se puede modificar");
+                    }
+                }
+                case "title" -> patch.title = patch.set(TITLE, field, text(parser, field), validator);
+                case "description" -> patch.description = patch.set(DESCRIPTION, field, text(parser, field), validator);
+                case "publicationDate" -> patch.publicationDate = patch.set(PUBLICATION_DATE, field, date(parser, field), validator);
+                case "language" -> patch.language = patch.set(LANGUAGE, field, text(parser, field), validator);
+                case "isbn" -> patch.isbn = patch.set(ISBN, field, text(parser, field), validator);
+                case "numberPages" -> patch.numberPages = patch.set(NUMBER_PAGES, field, intValue(parser, field), validator);
+                case "price" -> patch.price = patch.set(PRICE, field, decimal(parser, field), validator);
+                case "categoryId" -> patch.categoryId = patch.set(CATEGORY_ID, field, longValue(parser, field), validator);
+                case "authorId" -> patch.authorId = patch.set(AUTHOR_ID, field, longValue(parser, field), validator);
+                case "image" -> patch.image = patch.set(IMAGE, field, text(parser, field), validator);
+                case "reviewScore" -> patch.reviewScore = patch.set(REVIEW_SCORE, field, intValue(parser, field), validator);
+                case "status" -> patch.status = patch.set(STATUS, field, booleanValue(parser, field), validator);
+                default -> parser.skipChildren();
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * Indica si el parche no modifica ningún campo.
+     */
+    public boolean isEmpty() {
+        return touched == 0;
+    }
+
+    /**
+     * Copia los campos presentes en el parche sobre el libro indicado.
+     */
+    public void applyTo(Book book) {
+        if ((touched & TITLE) != 0) book.setTitle(title);
+        if ((touched & DESCRIPTION) != 0) book.setDescription(description);
+        if ((touched & PUBLICATION_DATE) != 0) book.setPublicationDate(publicationDate);
+        if ((touched & LANGUAGE) != 0) book.setLanguage(language);
+        if ((touched & ISBN) != 0) book.setIsbn(isbn);
+        if ((touched & NUMBER_PAGES) != 0) book.setNumberPages(numberPages);
+        if ((touched & PRICE) != 0) book.setPrice(price);
+        if ((touched & CATEGORY_ID) != 0) book.setCategoryId(categoryId);
+        if ((touched & AUTHOR_ID) != 0) book.setAuthorId(authorId);
+        if ((touched & IMAGE) != 0) book.setImage(image);
+        if ((touched & REVIEW_SCORE) != 0) book.setReviewScore(reviewScore);
+        if ((touched & STATUS) != 0) book.setStatus(status);
+    }
+
+    /**
+     * Marca el campo como modificado tras validar el valor con las restricciones de Book.
+     */
+    private <T> T set(int bit, String field, T value, Validator validator) {
+        Set<ConstraintViolation<Book>> violations = validator.validateValue(Book.class, field, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(field + ": " + violations.iterator().next().getMessage());
+        }
+        touched |= bit;
+        return value;
+    }
+
+    private static String text(JsonParser parser, String field) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> parser.getText();
+            default -> throw invalid(field);
+        };
+    }
+
+    private static LocalDate date(JsonParser parser, String field) throws IOException {
+        String value = text(parser, field);
+        try {
+            return (value == null) ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid(field);
+        }
+    }
+
+    private static BigDecimal decimal(JsonParser parser, String field) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+            default -> throw invalid(field);
+        };
+    }
+
+    private static Long longValue(JsonParser parser, String field) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            default -> throw invalid(field);
+        };
+    }
+
+    // Los campos primitivos de la entidad no admiten null
+    private static int intValue(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw invalid(field);
+        }
+        return parser.getIntValue();
+    }
+
+    private static boolean booleanValue(JsonParser parser, String field) {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> true;
+            case VALUE_FALSE -> false;
+            default -> throw invalid(field);
+        };
+    }
+
+    private static IllegalArgumentException invalid(String field) {
+        return new IllegalArgumentException(field + ": tipo de valor no válido");
+    }
+}
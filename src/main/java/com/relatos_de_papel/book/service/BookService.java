@@ -1,10 +1,21 @@
 package com.relatos_de_papel.book.service;
 
 import com.relatos_de_papel.book.controller.model.BookDto;
+import com.relatos_de_papel.book.controller.model.BookLookup;
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.controller.model.BulkDeleteRequest;
+import com.relatos_de_papel.book.controller.model.BulkImportResult;
+import com.relatos_de_papel.book.controller.model.BulkMutationResult;
+import com.relatos_de_papel.book.controller.model.BulkUpdateRequest;
 import com.relatos_de_papel.book.controller.model.CreateBookRequest;
 import com.relatos_de_papel.book.data.model.Book;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Define las operaciones de negocio para la entidad Book.
@@ -13,44 +24,110 @@ import java.util.List;
 public interface BookService {
 
     /**
-     * Devuelve todos los libros, o aplica filtros si se proporcionan criterios.
-     * @param title       Filtrar por título (contenga).
-     * @param language    Filtrar por idioma (igual).
-     * @param categoryId  Filtrar por ID de categoría.
-     * @param status      Filtrar por estado (activo/inactivo).
-     * @return Lista de libros que cumplen los filtros (o todos si no hay filtros).
+     * Devuelve una página de libros, aplicando los filtros, rangos y orden que se proporcionen.
+     * @param query  Filtros (title contiene; language, categoryId y status iguales), rangos de precio,
+     *               páginas, puntuación y fecha, orden, cursor {@code after} y tamaño {@code limit}.
+     * @return Página de libros que cumplen los filtros (o null si no hay resultados).
      */
-    List<Book> getBooks(String title, String language, Long categoryId, Boolean status);
+    List<Book> getBooks(BookQuery query);
+
+    /**
+     * Como {@link #getBooks(BookQuery)}, devolviendo solo la vista reducida de cada libro ({@code view=summary}).
+     * @return Página de resúmenes (o null si no hay resultados).
+     */
+    List<BookSummary> getBookSummaries(BookQuery query);
+
+    /**
+     * ETag débil de la página que devolvería {@link #getBooks(BookQuery)}, derivado de la versión del catálogo.
+     * Se calcula sin consultar la base de datos.
+     */
+    String getBooksETag(BookQuery query);
+
+    /**
+     * Recuentos por valor de las facetas (language, categoryId, status) para los filtros indicados.
+     * @return Mapa faceta → (valor → nº de libros), o null si los índices aún no están disponibles.
+     */
+    Map<String, Map<String, Long>> getFacets(String title, String language, Long categoryId, Boolean status);
+
+    /**
+     * Los {@code limit} libros activos mejor puntuados de la categoría o del idioma indicados.
+     * @param tiebreak  Desempate a igual puntuación: "price" (más barato primero) o "publicationDate"
+     *                  (más reciente primero).
+     * @return Libros en orden de ranking, o null si los índices aún no están disponibles.
+     */
+    List<Book> getTopBooks(Long categoryId, String language, String tiebreak, int limit);
+
+    /**
+     * Recorre el catálogo completo en orden de ID sin materializarlo en memoria.
+     * @param consumer  Recibe cada libro; no debe guardar referencias a ellos.
+     */
+    void exportBooks(Consumer<Book> consumer);
 
     /**
      * Busca un libro por su ID (en formato String). Retorna null si no existe o el ID es inválido.
      */
     Book getBook(String bookId);
 
+    /**
+     * Busca varios libros por ID en una sola operación.
+     * @param bookIds  IDs a resolver (pueden repetirse).
+     * @return Un resultado por cada ID, en el mismo orden, indicando si se encontró.
+     */
+    List<BookLookup> getBooks(List<Long> bookIds);
+
     /**
      * Elimina un libro por su ID. Retorna true si se borró correctamente, false si no existía.
      */
     Boolean removeBook(String bookId);
 
+    /**
+     * Aplica los cambios a todos los libros que cumplen el filtro (o a los IDs indicados) con sentencias
+     * UPDATE por conjuntos, sin leer ni guardar cada libro por separado.
+     * @return Número de libros modificados, o null si la petición no es válida (sin filtro ni IDs, sin
+     *         cambios, valores inválidos) o abarca más libros de los permitidos de una vez.
+     */
+    BulkMutationResult updateBooks(BulkUpdateRequest request);
+
+    /**
+     * Borra todos los libros que cumplen el filtro (o los IDs indicados) con sentencias DELETE por conjuntos.
+     * @return Número de libros borrados, o null si la petición no es válida o abarca demasiados libros.
+     */
+    BulkMutationResult removeBooks(BulkDeleteRequest request);
+
     /**
      * Crea un nuevo libro a partir de los datos del request. Retorna el Book recién guardado (con ID asignado),
      * o null si faltan campos obligatorios.
      */
     Book createBook(CreateBookRequest request);
 
+    /**
+     * Importa libros de forma masiva desde un array JSON o una secuencia NDJSON de {@link CreateBookRequest}.
+     * Cada fila se valida y se deduplica por ISBN (dentro de la importación y contra el catálogo);
+     * las válidas se insertan en bloques con batch JDBC.
+     * @return Resumen con el resultado de cada fila.
+     * @throws IOException si el contenido no es JSON bien formado.
+     */
+    BulkImportResult importBooks(InputStream content) throws IOException;
+
     /**
      * Aplica un parche parcial (JSON Merge Patch, RFC 7386) al libro cuyo ID coincide con bookId.
+     * Solo se modifican los campos presentes; {@code id} es de solo lectura.
+     * @param bookId        ID del libro en String.
      * @param bookId        ID del libro en String.
      * @param patchRequest  JSON con los campos a actualizar.
-     * @return El Book parchado y guardado, o null si no existe o hubo error.
+     * @param expectedVersion  Versión esperada del libro (If-Match), o null para no comprobarla.
+     * @return El Book parchado y guardado, o null si no existe, el JSON no es válido o algún campo no cumple las restricciones.
+     * @throws org.springframework.dao.OptimisticLockingFailureException si la versión no coincide o hubo una escritura concurrente.
      */
-    Book updateBook(String bookId, String patchRequest);
+    Book updateBook(String bookId, InputStream patchRequest, Long expectedVersion);
 
     /**
      * Actualiza por completo (PUT) un libro existente con los datos del DTO. Solo sobrescribe los campos no nulos.
      * @param bookId         ID del libro en String.
      * @param updateRequest  DTO con los nuevos valores de cada campo.
+     * @param expectedVersion  Versión esperada del libro (If-Match), o null para no comprobarla.
      * @return El Book actualizado, o null si no existe.
+     * @throws org.springframework.dao.OptimisticLockingFailureException si la versión no coincide o hubo una escritura concurrente.
      */
-    Book updateBook(String bookId, BookDto updateRequest);
+    Book updateBook(String bookId, BookDto updateRequest, Long expectedVersion);
 }
@@ -1,60 +1,166 @@
 package com.relatos_de_papel.book.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.fge.jsonpatch.JsonPatchException;
-import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
 import com.relatos_de_papel.book.controller.model.BookDto;
+import com.relatos_de_papel.book.controller.model.BookLookup;
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.controller.model.BulkDeleteRequest;
+import com.relatos_de_papel.book.controller.model.BulkImportResult;
+import com.relatos_de_papel.book.controller.model.BulkImportRow;
+import com.relatos_de_papel.book.controller.model.BulkMutationResult;
+import com.relatos_de_papel.book.controller.model.BulkUpdateRequest;
 import com.relatos_de_papel.book.controller.model.CreateBookRequest;
+import com.relatos_de_papel.book.data.cache.SearchKey;
 import com.relatos_de_papel.book.data.model.Book;
 import com.relatos_de_papel.book.data.repository.BookRepository;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SortField;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de negocio para Book.
+ * Las lecturas son transacciones de solo lectura: pueden servirse desde una réplica (ver DataSourceConfig).
  */
 @Service
+@Timed(value = "books.service", histogram = true)   // un temporizador por método (etiquetas class y method)
 @RequiredArgsConstructor
 @Slf4j
 public class BookServiceImpl implements BookService {
 
     private final BookRepository repository;
     private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${books.bulk.batch-size:1000}")
+    private int importBatchSize;
+
+    @Value("${books.bulk.max-affected:10000}")
+    private int maxAffected;
+
+    // Lecturas concurrentes idénticas comparten una única carga
+    final SingleFlight<Long, Book> bookLoads = new SingleFlight<>();
+    final SingleFlight<SearchKey, List<Book>> searchLoads = new SingleFlight<>();
+    final SingleFlight<SearchKey, List<BookSummary>> summaryLoads = new SingleFlight<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        registerMetrics("getBook", bookLoads);
+        registerMetrics("getBooks", searchLoads);
+        registerMetrics("getBookSummaries", summaryLoads);
+    }
+
+    private void registerMetrics(String operation, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("books.singleflight.calls", flight, SingleFlight::calls)
+                .description("Lecturas recibidas")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        FunctionCounter.builder("books.singleflight.coalesced", flight, SingleFlight::coalesced)
+                .description("Lecturas que reutilizaron una carga en curso")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> getBooks(BookQuery query) {
+        // Las peticiones concurrentes con los mismos filtros comparten la misma consulta
+        return searchLoads.load(SearchKey.of(query), () -> loadBooks(query));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummaries(BookQuery query) {
+        return summaryLoads.load(SearchKey.of(query), () -> loadSummaries(query));
+    }
 
     @Override
-    public List<Book> getBooks(String title, String language, Long categoryId, Boolean status) {
-        // Si se proporcionan criterios de búsqueda, delegamos a search(...)
-        if (StringUtils.hasLength(title) ||
-                StringUtils.hasLength(language) ||
-                categoryId != null ||
-                status != null) {
+    public String getBooksETag(BookQuery query) {
+        return repository.searchETag(query);
+    }
 
-            return repository.search(title, language, categoryId, status);
+    private List<Book> loadBooks(BookQuery query) {
+        // Si se proporcionan criterios de búsqueda, rangos u orden, delegamos a search(...)
+        if (query.hasFilters() || query.hasRangesOrSort()) {
+            return repository.search(query);
         }
 
-        // Si no hay filtros, devolvemos todos los libros
-        List<Book> all = repository.getBooks();
-        return all.isEmpty() ? null : all;
+        // Si no hay filtros, devolvemos la siguiente página del catálogo
+        List<Book> page = repository.getBooks(query.getAfter(), query.getLimit());
+        return page.isEmpty() ? null : page;
+    }
+
+    private List<BookSummary> loadSummaries(BookQuery query) {
+        List<BookSummary> page = (query.hasFilters() || query.hasRangesOrSort())
+                ? repository.searchSummaries(query)
+                : repository.getBookSummaries(query.getAfter(), query.getLimit());
+        return page.isEmpty() ? null : page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> getFacets(String title, String language, Long categoryId, Boolean status) {
+        return repository.facetCounts(title, language, categoryId, status);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> getTopBooks(Long categoryId, String language, String tiebreak, int limit) {
+        return repository.topRated(categoryId, language, SortField.fromProperty(tiebreak), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<Book> consumer) {
+        repository.forEachBook(consumer);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Book getBook(String bookId) {
-        if (!StringUtils.hasLength(bookId)) {
-            return null;
-        }
-        try {
-            Long id = Long.valueOf(bookId);
-            return repository.getById(id);
-        } catch (NumberFormatException e) {
-            log.error("ID de libro inválido: {}", bookId, e);
-            return null;
+        Long id = parseId(bookId);
+        return (id != null) ? bookLoads.load(id, () -> repository.getById(id)) : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookLookup> getBooks(List<Long> bookIds) {
+        Map<Long, Book> found = repository.getByIds(bookIds);
+        List<BookLookup> result = new ArrayList<>(bookIds.size());
+        for (Long id : bookIds) {
+            Book book = found.get(id);
+            result.add(new BookLookup(id, book != null, book));
         }
+        return result;
     }
 
     @Override
@@ -68,21 +174,197 @@ public class BookServiceImpl implements BookService {
         }
     }
 
+    @Override
+    public BulkMutationResult updateBooks(BulkUpdateRequest request) {
+        if (request == null || !request.hasChanges() || !hasTarget(request.getFilter(), request.getIds())
+                || (request.getPrice() != null && request.getPriceFactor() != null)
+                || (request.getPriceFactor() != null && request.getPriceFactor().signum() <= 0)
+                || !isValid(Consts.PRICE, request.getPrice())
+                || !isValid(Consts.FK_ID_CATEGORY, request.getCategoryId())) {
+            return null;
+        }
+        Integer affected = repository.bulkUpdate(request, maxAffected);
+        if (affected == null) {
+            log.warn("Modificación masiva rechazada: abarca más de {} libros", maxAffected);
+            return null;
+        }
+        log.info("Modificación masiva: {} libros", affected);
+        return new BulkMutationResult(affected);
+    }
+
+    @Override
+    public BulkMutationResult removeBooks(BulkDeleteRequest request) {
+        if (request == null || !hasTarget(request.getFilter(), request.getIds())) {
+            return null;
+        }
+        Integer affected = repository.bulkDelete(request, maxAffected);
+        if (affected == null) {
+            log.warn("Borrado masivo rechazado: abarca más de {} libros", maxAffected);
+            return null;
+        }
+        log.info("Borrado masivo: {} libros", affected);
+        return new BulkMutationResult(affected);
+    }
+
+    /**
+     * Una operación masiva debe acotar los libros afectados: con IDs (sin nulos) o con algún filtro
+     * o rango. El orden y la paginación no cuentan como filtro.
+     */
+    private boolean hasTarget(BookQuery filter, List<Long> ids) {
+        if (ids != null) {
+            return !ids.isEmpty() && ids.size() <= maxAffected && !ids.contains(null);
+        }
+        return filter != null && (filter.hasFilters() || filter.hasRanges());
+    }
+
+    private boolean isValid(String field, Object value) {
+        return value == null || validator.validateValue(Book.class, field, value).isEmpty();
+    }
+
     @Override
     public Book createBook(CreateBookRequest request) {
         // Validación mínima (puede ampliarse con @Valid en el controlador)
-        if (request == null ||
-                !StringUtils.hasLength(request.getTitle()) ||
-                !StringUtils.hasLength(request.getLanguage()) ||
-                request.getPrice() == null ||
-                request.getCategoryId() == null ||
-                request.getAuthorId() == null ||
-                !StringUtils.hasLength(request.getImage())) {
+        if (!hasRequiredFields(request)) {
+            return null;
+        }
+        return repository.save(toBook(request));
+    }
+
+    @Override
+    public BulkImportResult importBooks(InputStream content) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        Set<String> seenIsbns = new HashSet<>();
+        List<Book> batch = new ArrayList<>(importBatchSize);
+        List<Integer> batchRows = new ArrayList<>(importBatchSize);
+
+        // MappingIterator acepta tanto un array JSON como una secuencia NDJSON (un objeto por línea)
+        try (MappingIterator<CreateBookRequest> rows =
+                     objectMapper.readerFor(CreateBookRequest.class).readValues(content)) {
+            int index = 0;
+            while (rows.hasNextValue()) {
+                int row = index++;
+                CreateBookRequest request;
+                try {
+                    request = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // Fila con tipos incorrectos: se descarta y se continúa con la siguiente
+                    result.add(rejected(row, BulkImportRow.Status.INVALID, e.getOriginalMessage()));
+                    continue;
+                }
+
+                String error = validateForImport(request);
+                if (error != null) {
+                    result.add(rejected(row, BulkImportRow.Status.INVALID, error));
+                    continue;
+                }
+                Book book = toBook(request);
+                if (book.getIsbn() != null && !seenIsbns.add(book.getIsbn())) {
+                    result.add(rejected(row, BulkImportRow.Status.DUPLICATE, "ISBN repetido en la importación"));
+                    continue;
+                }
+
+                batch.add(book);
+                batchRows.add(row);
+                if (batch.size() == importBatchSize) {
+                    flushImportBatch(batch, batchRows, result);
+                    batch.clear();
+                    batchRows.clear();
+                }
+            }
+        }
+        flushImportBatch(batch, batchRows, result);
+
+        result.getRows().sort(Comparator.comparingInt(BulkImportRow::getIndex));
+        log.info("Importación masiva: {} creados, {} duplicados, {} inválidos",
+                result.getCreated(), result.getDuplicates(), result.getInvalid());
+        return result;
+    }
+
+    /**
+     * Descarta los ISBN que ya existen en el catálogo e inserta el resto del bloque en un solo batch.
+     */
+    private void flushImportBatch(List<Book> batch, List<Integer> batchRows, BulkImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> existing = repository.findExistingIsbns(
+                batch.stream().map(Book::getIsbn).filter(Objects::nonNull).toList());
+
+        List<Book> books = new ArrayList<>(batch.size());
+        List<Integer> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).getIsbn() != null && existing.contains(batch.get(i).getIsbn())) {
+                result.add(rejected(batchRows.get(i), BulkImportRow.Status.DUPLICATE, "ISBN ya existente"));
+            } else {
+                books.add(batch.get(i));
+                rows.add(batchRows.get(i));
+            }
+        }
+        if (books.isEmpty()) {
+            return;
+        }
+
+        try {
+            repository.insertAll(books);
+            for (int i = 0; i < books.size(); i++) {
+                result.add(created(rows.get(i), books.get(i)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Otra escritura concurrente insertó alguno de estos ISBN: se reintenta fila a fila
+            log.warn("Conflicto insertando un bloque de {} libros, reintentando fila a fila", books.size());
+            for (int i = 0; i < books.size(); i++) {
+                try {
+                    repository.insertAll(List.of(books.get(i)));
+                    result.add(created(rows.get(i), books.get(i)));
+                } catch (DataIntegrityViolationException rowError) {
+                    result.add(rejected(rows.get(i), BulkImportRow.Status.DUPLICATE, "ISBN ya existente"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Valida una fila de importación: campos obligatorios y restricciones de la entidad.
+     * @return Descripción del error, o null si la fila es válida.
+     */
+    private String validateForImport(CreateBookRequest request) {
+        if (!hasRequiredFields(request)
+                || request.getNumberPages() == null
+                || request.getReviewScore() == null
+                || request.getStatus() == null) {
+            return "Faltan campos obligatorios";
+        }
+        Set<ConstraintViolation<Book>> violations = validator.validate(toBook(request));
+        if (violations.isEmpty()) {
             return null;
         }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
 
+    private static BulkImportRow created(int row, Book book) {
+        return BulkImportRow.builder().index(row).status(BulkImportRow.Status.CREATED).id(book.getId()).build();
+    }
+
+    private static BulkImportRow rejected(int row, BulkImportRow.Status status, String error) {
+        return BulkImportRow.builder().index(row).status(status).error(error).build();
+    }
+
+    private static boolean hasRequiredFields(CreateBookRequest request) {
+        return request != null &&
+                StringUtils.hasLength(request.getTitle()) &&
+                StringUtils.hasLength(request.getLanguage()) &&
+                request.getPrice() != null &&
+                request.getCategoryId() != null &&
+                request.getAuthorId() != null &&
+                StringUtils.hasLength(request.getImage());
+    }
+
+    private static Book toBook(CreateBookRequest request) {
         // Construcción del nuevo Book
-        Book book = Book.builder()
+        return Book.builder()
                 .title(request.getTitle().trim())
                 .description(request.getDescription() == null ? null : request.getDescription().trim())
                 .publicationDate(request.getPublicationDate())
@@ -96,47 +378,40 @@ public class BookServiceImpl implements BookService {
                 .reviewScore(request.getReviewScore())
                 .status(request.getStatus())       // ← Usamos getStatus() en lugar de isStatus()
                 .build();
-
-        return repository.save(book);
     }
 
     @Override
-    public Book updateBook(String bookId, String patchRequest) {
-        // PATCH usando JsonMergePatch (RFC 7386)
-        Book existing = getBook(bookId);
-        if (existing == null) {
+    public Book updateBook(String bookId, InputStream patchRequest, Long expectedVersion) {
+        // PATCH con JSON Merge Patch (RFC 7386), leído en streaming y aplicado sobre la entidad gestionada
+        Long id = parseId(bookId);
+        if (id == null) {
             return null;
         }
 
-        try {
-            // 1) Convertir el JSON (String) en JsonMergePatch
-            JsonMergePatch mergePatch = JsonMergePatch.fromJson(objectMapper.readTree(patchRequest));
-
-            // 2) Convertir el objeto Java “existing” a JsonNode
-            JsonNode existingNode = objectMapper.valueToTree(existing);
-
-            // 3) Aplicar el patch (merge) sobre el JsonNode existente
-            JsonNode patchedNode = mergePatch.apply(existingNode);
-
-            // 4) Convertir el nodo parchado de vuelta a Book
-            Book patchedBook = objectMapper.treeToValue(patchedNode, Book.class);
-
-            // 5) Guardar y retornar
-            return repository.save(patchedBook);
-
-        } catch (JsonProcessingException | JsonPatchException e) {
+        BookMergePatch patch;
+        try (JsonParser parser = objectMapper.createParser(patchRequest)) {
+            patch = BookMergePatch.read(parser, id, validator);
+        } catch (IOException | IllegalArgumentException e) {
             log.error("Error parchando el libro con ID {}: {}", bookId, e.getMessage());
             return null;
         }
+        return repository.update(id, expectedVersion, patch::applyTo);
     }
 
     @Override
-    public Book updateBook(String bookId, BookDto updateRequest) {
-        Book existing = getBook(bookId);
-        if (existing == null || updateRequest == null) {
+    public Book updateBook(String bookId, BookDto updateRequest, Long expectedVersion) {
+        // Se modifica la entidad gestionada (sin caché): la instancia cacheada es compartida con los lectores
+        Long id = parseId(bookId);
+        if (id == null || updateRequest == null) {
             return null;
         }
+        return repository.update(id, expectedVersion, existing -> copyFields(updateRequest, existing));
+    }
 
+    /**
+     * Copia cada campo no nulo desde el DTO al libro.
+     */
+    private static void copyFields(BookDto updateRequest, Book existing) {
         // Copiar cada campo no nulo desde el DTO al objeto existente
         if (StringUtils.hasLength(updateRequest.getTitle())) {
             existing.setTitle(updateRequest.getTitle().trim());
@@ -174,7 +449,20 @@ public class BookServiceImpl implements BookService {
         if (updateRequest.getStatus() != null) {
             existing.setStatus(updateRequest.getStatus());
         }
+    }
 
-        return repository.save(existing);
+    /**
+     * Convierte el ID recibido como String a Long. Retorna null si está vacío o no es numérico.
+     */
+    private Long parseId(String bookId) {
+        if (!StringUtils.hasLength(bookId)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(bookId);
+        } catch (NumberFormatException e) {
+            log.error("ID de libro inválido: {}", bookId, e);
+            return null;
+        }
     }
 }
@@ -0,0 +1,30 @@
+-- Cambios de esquema de books posteriores a la versión inicial (V1: tabla books ya existente).
+-- El esquema se gestiona fuera del servicio: este script se aplica antes de desplegar la versión
+-- que lo necesita (Hibernate no modifica el esquema de producción).
+
+-- Bloqueo optimista (@Version, ETag / If-Match) y fecha de última modificación (Last-Modified,
+-- consulta delta de la instantánea del catálogo)
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN last_modified DATETIME(6) NULL;
+
+CREATE INDEX idx_books_last_modified ON books (last_modified);
+
+-- Outbox de cambios del catálogo: el ID es el offset del evento (lo asigna book_outbox_sequence)
+CREATE TABLE book_outbox (
+    id           BIGINT      NOT NULL,
+    book_id      BIGINT      NOT NULL,
+    type         VARCHAR(16) NOT NULL,
+    book_version BIGINT      NULL,
+    payload      LONGTEXT    NULL,
+    created_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_book_outbox_created_at ON book_outbox (created_at);
+
+-- Contador de offsets del outbox (una sola fila, la crea el servicio al arrancar)
+CREATE TABLE book_outbox_sequence (
+    id          BIGINT NOT NULL,
+    last_offset BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
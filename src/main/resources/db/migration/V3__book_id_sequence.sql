@@ -0,0 +1,9 @@
+-- IDs de libros asignados por el servicio en bloques (importación masiva en batch sin AUTO_INCREMENT ni
+-- lectura de claves generadas). La fila del contador la crea el servicio al arrancar, a partir de MAX(id).
+-- books.id conserva AUTO_INCREMENT, pero ya no se usa: todas las instancias deben desplegar esta versión
+-- antes de volver a dar altas, o una instancia anterior podría tomar un ID ya reservado.
+CREATE TABLE book_id_sequence (
+    id      BIGINT NOT NULL,
+    last_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
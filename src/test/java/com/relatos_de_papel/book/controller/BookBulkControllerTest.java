@@ -0,0 +1,90 @@
+package com.relatos_de_papel.book.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Modificación y borrado masivos contra la base de datos embebida (H2).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookBulkControllerTest {
+
+    private static final long CATEGORY = 7021;
+
+    private static final String BOOK = "{\"title\":\"%s\",\"language\":\"es\",\"isbn\":\"%s\",\"numberPages\":100,"
+            + "\"price\":%s,\"categoryId\":" + CATEGORY + ",\"authorId\":1,\"image\":\"img\",\"reviewScore\":3,\"status\":true}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void updatesAndDeletesEveryMatchingBook() throws Exception {
+        long first = create("Masivo 1", "bulk-1", "10.00");
+        long second = create("Masivo 2", "bulk-2", "19.99");
+        // Leído antes del cambio: la caché no debe devolverlo obsoleto
+        mvc.perform(get("/books/" + first)).andExpect(status().isOk());
+
+        mvc.perform(patch("/books/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"categoryId\":" + CATEGORY + "},\"priceFactor\":0.9,\"status\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        JsonNode book = objectMapper.readTree(mvc.perform(get("/books/" + first))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertEquals("9.00", book.get("price").decimalValue().setScale(2).toPlainString());
+        assertEquals(false, book.get("status").asBoolean());
+        assertEquals(1, book.get("version").asInt());
+        mvc.perform(get("/books/" + second))
+                .andExpect(jsonPath("$.price").value(17.99));
+
+        mvc.perform(post("/books/bulk/delete").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + first + "," + second + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        mvc.perform(get("/books/" + first)).andExpect(status().isNotFound());
+        mvc.perform(get("/books/" + second)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectsUnboundedOrEmptyRequests() throws Exception {
+        // Sin filtro ni IDs: afectaría a todo el catálogo
+        mvc.perform(patch("/books/bulk").contentType(MediaType.APPLICATION_JSON).content("{\"status\":false}"))
+                .andExpect(status().isBadRequest());
+        // Solo orden: no acota los libros afectados
+        mvc.perform(post("/books/bulk/delete").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"sort\":\"price\"}}"))
+                .andExpect(status().isBadRequest());
+        // Sin cambios
+        mvc.perform(patch("/books/bulk").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest());
+        // Precio fijo y factor a la vez
+        mvc.perform(patch("/books/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"price\":5,\"priceFactor\":0.5}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long create(String title, String isbn, String price) throws Exception {
+        String created = mvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOK.formatted(title, isbn, price)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asLong();
+    }
+}
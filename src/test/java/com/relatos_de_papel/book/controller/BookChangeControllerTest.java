@@ -0,0 +1,101 @@
+package com.relatos_de_papel.book.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.service.BookChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Flujo de cambios contra la base de datos embebida (H2): outbox transaccional y long-poll.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookChangeControllerTest {
+
+    private static final String BOOK = "{\"title\":\"%s\",\"language\":\"es\",\"isbn\":\"%s\",\"numberPages\":100,"
+            + "\"price\":10.5,\"categoryId\":1,\"authorId\":1,\"image\":\"img\",\"reviewScore\":3,\"status\":true}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookChangeFeed changeFeed;
+
+    @Test
+    void writesAreStreamedInCommitOrder() throws Exception {
+        long start = changeFeed.latestOffset();
+
+        String created = mvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOK.formatted("Outbox", "outbox-1")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        mvc.perform(patch("/books/" + id).contentType(MediaType.APPLICATION_JSON).content("{\"price\": 12}"))
+                .andExpect(status().isOk());
+        // Una escritura rechazada no deja evento
+        mvc.perform(patch("/books/" + id).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"price\": 13}"))
+                .andExpect(status().isPreconditionFailed());
+        mvc.perform(delete("/books/" + id)).andExpect(status().isOk());
+
+        // La importación masiva también se registra
+        mvc.perform(post("/books/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + BOOK.formatted("Otro", "outbox-2") + "]"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mvc.perform(get("/books/changes").param("after", String.valueOf(start)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult page = mvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn();
+        JsonNode changes = objectMapper.readTree(page.getResponse().getContentAsString());
+
+        assertEquals(4, changes.size());
+        assertEquals("CREATED", changes.get(0).get("type").asText());
+        assertEquals("UPDATED", changes.get(1).get("type").asText());
+        assertEquals(12, changes.get(1).get("book").get("price").asInt());
+        assertEquals(1, changes.get(1).get("version").asInt());
+        assertEquals("DELETED", changes.get(2).get("type").asText());
+        assertEquals(id, changes.get(2).get("bookId").asLong());
+        assertEquals("CREATED", changes.get(3).get("type").asText());
+        assertEquals(start + 4, changes.get(3).get("offset").asLong());
+        assertEquals(String.valueOf(start + 4), page.getResponse().getHeader(BookController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void longPollWaitsForTheNextChange() throws Exception {
+        long start = changeFeed.latestOffset();
+
+        MvcResult waiting = mvc.perform(get("/books/changes")
+                        .param("after", String.valueOf(start))
+                        .param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOK.formatted("Esperado", "outbox-3")))
+                .andExpect(status().isCreated());
+
+        JsonNode changes = objectMapper.readTree(
+                mvc.perform(asyncDispatch(waiting)).andReturn().getResponse().getContentAsString());
+        assertEquals(1, changes.size());
+        assertEquals("Esperado", changes.get(0).get("book").get("title").asText());
+    }
+}
@@ -0,0 +1,78 @@
+package com.relatos_de_papel.book.controller;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compresión en el Tomcat embebido: las respuestas condicionales (con ETag) también se comprimen
+ * y declaran de qué cabeceras de la petición dependen.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookRepository repository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void largeListsAreGzippedAndRevalidated() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            books.add(Book.builder().title("Comprimido " + i).description("Una descripción que se repite " + i)
+                    .language("es").isbn("gzip-" + i).numberPages(100).price(new BigDecimal("10.00"))
+                    .categoryId(1L).authorId(1L).image("img").reviewScore(3).status(true).build());
+        }
+        repository.insertAll(books);
+
+        HttpResponse<byte[]> response = get("/books?limit=100", null);
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        String eTag = response.headers().firstValue("ETag").orElseThrow();
+        assertTrue(eTag.startsWith("W/"), eTag);
+        String vary = String.join(",", response.headers().allValues("Vary")).toLowerCase();
+        assertTrue(vary.contains("accept") && vary.contains("accept-encoding"), vary);
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertTrue(new String(body.readAllBytes()).contains("Comprimido 99"));
+        }
+
+        HttpResponse<byte[]> notModified = get("/books?limit=100", eTag);
+        assertEquals(304, notModified.statusCode());
+        assertTrue(notModified.headers().firstValue("Vary").isPresent());
+
+        // Un libro: ETag débil, válido también para If-None-Match
+        String single = get("/books/" + books.get(0).getId(), null).headers().firstValue("ETag").orElseThrow();
+        assertEquals("W/\"0\"", single);
+        assertEquals(304, get("/books/" + books.get(0).getId(), single).statusCode());
+    }
+
+    private HttpResponse<byte[]> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,118 @@
+package com.relatos_de_papel.book.controller;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La exportación NDJSON se genera mientras el cliente la lee: a mitad de la descarga el heap solo ha
+ * crecido una fracción del tamaño de la respuesta (cargar todas las filas antes de escribir supera el
+ * límite). Las descripciones son distintas por libro para que H2 no comparta las cadenas entre filas.
+ * H2 ejecuta las consultas en modo lazy para que, como MySQL con {@code useCursorFetch}, entregue las
+ * filas según se piden.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1")
+class BookExportTest {
+
+    private static final int BOOKS = 30_000;
+    private static final String DESCRIPTION = "Descripción larga para engordar cada línea. ".repeat(6);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookRepository repository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void streamsALargeExportWithBoundedHeap() throws Exception {
+        for (int chunk = 0; chunk < BOOKS; chunk += 1000) {
+            List<Book> books = new ArrayList<>();
+            for (int i = chunk; i < chunk + 1000; i++) {
+                books.add(Book.builder().title("Exportado " + i).description(DESCRIPTION + i)
+                        .language("es").isbn("export-" + i).numberPages(100).price(new BigDecimal("10.00"))
+                        .categoryId(1L).authorId(1L).image("img").reviewScore(3).status(true).build());
+            }
+            repository.insertAll(books);
+        }
+        // Una primera exportación completa deja inicializado todo lo perezoso (serializadores, cachés de H2...)
+        try (InputStream warmUp = export().body()) {
+            warmUp.transferTo(OutputStream.nullOutputStream());
+        }
+        long baseline = settledHeap();
+
+        HttpResponse<InputStream> response = export();
+        assertEquals(200, response.statusCode());
+
+        long lines = 0;
+        long bytes = 0;
+        long midway = -1;
+        byte[] buffer = new byte[8192];
+        try (InputStream body = response.body()) {
+            for (int read; (read = body.read(buffer)) > 0; ) {
+                bytes += read;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (midway < 0 && lines >= BOOKS / 2) {
+                    midway = usedHeapAfterGc();
+                }
+            }
+        }
+
+        assertEquals(BOOKS, lines + 1);    // sin salto de línea tras el último libro
+        long growth = midway - baseline;
+        assertTrue(growth < bytes / 4, "El heap creció " + growth + " bytes con una exportación de " + bytes);
+    }
+
+    private HttpResponse<InputStream> export() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/books/export")).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Heap en uso una vez estable: tras las inserciones hay limpiezas asíncronas (cachés) que siguen
+     * liberando memoria un rato.
+     */
+    private static long settledHeap() throws InterruptedException {
+        long used = usedHeapAfterGc();
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(250);
+            long next = usedHeapAfterGc();
+            if (Math.abs(next - used) < (1 << 20)) {
+                return Math.min(used, next);
+            }
+            used = next;
+        }
+        return used;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
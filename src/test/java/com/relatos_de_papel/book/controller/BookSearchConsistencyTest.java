@@ -0,0 +1,112 @@
+package com.relatos_de_papel.book.controller;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import com.relatos_de_papel.book.data.repository.BookSearchQueries;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SearchCriteria;
+import com.relatos_de_papel.book.data.utils.SearchOperation;
+import com.relatos_de_papel.book.data.utils.SearchStatement;
+import com.relatos_de_papel.book.data.utils.SortField;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * La búsqueda resuelta en los índices en memoria devuelve lo mismo que la consulta en base de datos.
+ * H2 compara aquí como la collation de MySQL (utf8mb4_0900_ai_ci): sin distinguir mayúsculas ni acentos.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:collation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;COLLATION=ENGLISH STRENGTH PRIMARY")
+@AutoConfigureMockMvc
+class BookSearchConsistencyTest {
+
+    private static final long COLLATION_CATEGORY = 9051;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    @Autowired
+    private BookSearchQueries searchQueries;
+
+    @Test
+    void cursorsAreValidatedAndReadAsValuesByBothPaths() throws Exception {
+        mvc.perform(get("/books").param("after", "-1")).andExpect(status().isBadRequest());
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            books.add(book("Cursorial " + i, "cursorial-" + i));
+        }
+        repository.insertAll(books);
+        // Cursor de un libro que ya no existe: ambos caminos siguen desde su ID
+        Book deleted = books.get(2);
+        repository.delete(deleted);
+
+        for (Long after : new Long[] {null, 0L, deleted.getId()}) {
+            for (boolean descending : new boolean[] {false, true}) {
+                BookQuery query = BookQuery.builder().title("cursorial").after(after).limit(50)
+                        .direction(descending ? "desc" : "asc").build();
+                SearchCriteria<Book> spec = new SearchCriteria<>();
+                spec.add(new SearchStatement(Consts.TITLE, "cursorial", SearchOperation.MATCH));
+                assertEquals(ids(searchQueries.findPage(Book.class, spec, SortField.ID, descending, after, null, 50)),
+                        ids(repository.search(query)), "after=" + after + ", descending=" + descending);
+            }
+        }
+    }
+
+    @Test
+    void textAndLanguageMatchIgnoringCaseAndAccentsLikeTheDatabase() {
+        List<Book> books = new ArrayList<>();
+        String[][] rows = {
+                {"El Páramo", "Español"}, {"PEDRO PARAMO", "ESPAÑOL"}, {"paramo del norte", "espanol"},
+                {"Canción de páramos", "es"}, {"Otra novela", "Español"}, {"Ñandú en el PÁRAMO", "français"}};
+        for (int i = 0; i < rows.length; i++) {
+            Book book = book(rows[i][0], "collation-" + i);
+            book.setLanguage(rows[i][1]);
+            book.setCategoryId(COLLATION_CATEGORY);
+            books.add(book);
+        }
+        repository.insertAll(books);
+
+        for (String title : new String[] {"páramo", "PARAMO", "Páramos", "ñandu", "canción", null}) {
+            for (String language : new String[] {"español", "ESPANOL", "Francais", null}) {
+                BookQuery query = BookQuery.builder().title(title).language(language)
+                        .categoryId(COLLATION_CATEGORY).limit(50).build();
+                SearchCriteria<Book> spec = new SearchCriteria<>();
+                if (title != null) {
+                    spec.add(new SearchStatement(Consts.TITLE, title, SearchOperation.MATCH));
+                }
+                if (language != null) {
+                    spec.add(new SearchStatement(Consts.LANGUAGE, language, SearchOperation.EQUAL));
+                }
+                spec.add(new SearchStatement(Consts.FK_ID_CATEGORY, COLLATION_CATEGORY, SearchOperation.EQUAL));
+                assertEquals(ids(searchQueries.findPage(Book.class, spec, SortField.ID, false, null, null, 50)),
+                        ids(repository.search(query)), "title=" + title + ", language=" + language);
+            }
+        }
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).toList();
+    }
+
+    private static Book book(String title, String isbn) {
+        return Book.builder().title(title).language("es").isbn(isbn).numberPages(100)
+                .price(new BigDecimal("10.00")).categoryId(1L).authorId(1L).image("img").reviewScore(3).status(true)
+                .build();
+    }
+}
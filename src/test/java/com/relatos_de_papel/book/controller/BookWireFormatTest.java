@@ -0,0 +1,149 @@
+package com.relatos_de_papel.book.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Negociación de contenido: el JSON (servido desde los fragmentos cacheados) no cambia respecto al
+ * ObjectMapper sin configurar y Smile/CBOR llevan la misma estructura.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookWireFormatTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookJsonHttpMessageConverter converter;
+
+    @Test
+    void binaryFormatsCarryTheSameBook() throws Exception {
+        String created = mvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Binario\",\"language\":\"es\",\"isbn\":\"wire-1\",\"numberPages\":100,"
+                                + "\"publicationDate\":\"2020-02-29\",\"price\":10.5,\"categoryId\":1,\"authorId\":1,"
+                                + "\"image\":\"img\",\"reviewScore\":3,\"status\":true}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        String json = mvc.perform(get("/books/" + id).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Book book = repository.getById(id);
+        assertEquals(new ObjectMapper().writeValueAsString(book), json);
+
+        JsonNode expected = objectMapper.readTree(json);
+        byte[] smile = mvc.perform(get("/books/" + id).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected, asJson(new SmileMapper().readTree(smile)));
+
+        byte[] cbor = mvc.perform(get("/books/" + id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected, asJson(new CBORMapper().readTree(cbor)));
+    }
+
+    @Test
+    void jsonIsServedFromCachedFragments() throws Exception {
+        long first = create("Fragmento 1", "wire-2");
+        long second = create("Fragmento 2", "wire-3");
+        double hits = cacheHits();
+
+        String json = mvc.perform(get("/books/" + first)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(json, mvc.perform(get("/books/" + first))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(new ObjectMapper().writeValueAsString(repository.getById(first)), json);
+
+        // Lista compuesta con los fragmentos: idéntica a serializarla entera
+        String page = mvc.perform(get("/books").param("after", String.valueOf(first - 1)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(new ObjectMapper().writeValueAsString(repository.getAllById(List.of(first, second))), page);
+        assertTrue(cacheHits() >= hits + 2);
+
+        // Una escritura invalida el fragmento
+        mvc.perform(patch("/books/" + first).contentType(MediaType.APPLICATION_JSON).content("{\"price\": 42}"))
+                .andExpect(status().isOk());
+        assertEquals(42, objectMapper.readTree(mvc.perform(get("/books/" + first))
+                .andReturn().getResponse().getContentAsString()).get("price").asInt());
+    }
+
+    @Test
+    void onlyBookListsGoThroughTheFragmentConverter() throws Exception {
+        long id = create("Resumen", "wire-4");
+
+        // La vista reducida la escribe Jackson
+        JsonNode summary = objectMapper.readTree(mvc.perform(get("/books")
+                        .param("after", String.valueOf(id - 1)).param("limit", "1").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get(0);
+        assertEquals(id, summary.get("id").asLong());
+        assertFalse(summary.has("isbn"));
+
+        assertFalse(converter.canRead(Book.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(Book.class, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, BookSummary.class).getType(),
+                List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, Book.class).getType(),
+                List.class, MediaType.APPLICATION_JSON));
+    }
+
+    private long create(String title, String isbn) throws Exception {
+        String created = mvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"%s\",\"language\":\"es\",\"isbn\":\"%s\",\"numberPages\":100,".formatted(title, isbn)
+                                + "\"price\":10.5,\"categoryId\":1,\"authorId\":1,\"image\":\"img\",\"reviewScore\":3,\"status\":true}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asLong();
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("name", "books-json").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    // Los formatos binarios conservan el tipo numérico (BigDecimal); se compara el mismo árbol leído como JSON
+    private JsonNode asJson(JsonNode tree) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(tree));
+    }
+}
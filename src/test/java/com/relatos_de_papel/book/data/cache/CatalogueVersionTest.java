@@ -0,0 +1,108 @@
+package com.relatos_de_papel.book.data.cache;
+
+import com.relatos_de_papel.book.data.index.BookIndex;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * La versión del catálogo sube después de actualizar los índices: nadie puede leer la versión nueva
+ * y obtener el resultado de los índices anteriores.
+ *
+ * El flujo de cambios solo se reparte al avisarle (tras subir la versión): un sondeo entre la confirmación
+ * y los listeners volvería a aplicar la escritura como si fuera de otra instancia y subiría la versión dos veces.
+ */
+@SpringBootTest(properties = "books.changes.poll-interval=1h")
+class CatalogueVersionTest {
+
+    /** Índice que anota la versión del catálogo vigente cuando recibe cada libro */
+    static class VersionProbe implements BookIndex {
+
+        final Map<Long, Long> seen = new ConcurrentHashMap<>();
+        private final CatalogueVersion catalogueVersion;
+
+        VersionProbe(CatalogueVersion catalogueVersion) {
+            this.catalogueVersion = catalogueVersion;
+        }
+
+        @Override
+        public void clear() {
+            seen.clear();
+        }
+
+        @Override
+        public void index(Book book) {
+            seen.put(book.getId(), catalogueVersion.current());
+        }
+
+        @Override
+        public void remove(Long bookId) {
+            seen.put(bookId, catalogueVersion.current());
+        }
+
+        @Override
+        public void markReady() {
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+    }
+
+    @TestConfiguration
+    static class ProbeConfig {
+
+        @Bean
+        VersionProbe versionProbe(CatalogueVersion catalogueVersion) {
+            return new VersionProbe(catalogueVersion);
+        }
+    }
+
+    @Autowired
+    private BookRepository repository;
+
+    @Autowired
+    private CatalogueVersion catalogueVersion;
+
+    @Autowired
+    private VersionProbe probe;
+
+    @Test
+    void indexesAreUpdatedBeforeTheVersionIsBumped() {
+        long before = catalogueVersion.current();
+        Book saved = repository.save(book("version-1"));
+        assertEquals(before, probe.seen.get(saved.getId()));
+        assertEquals(before + 1, catalogueVersion.current());
+
+        // Importación: un evento por bloque, aplicado a los índices antes de la subida
+        before = catalogueVersion.current();
+        List<Book> imported = List.of(book("version-2"), book("version-3"));
+        repository.insertAll(imported);
+        for (Book book : imported) {
+            assertEquals(before, probe.seen.get(book.getId()));
+        }
+        assertEquals(before + 1, catalogueVersion.current());
+
+        before = catalogueVersion.current();
+        repository.delete(saved);
+        assertEquals(before, probe.seen.get(saved.getId()));
+    }
+
+    private static Book book(String isbn) {
+        return Book.builder().title("Orden").language("es").isbn(isbn).numberPages(100)
+                .price(new BigDecimal("10.00")).categoryId(1L).authorId(1L).image("img").reviewScore(3).status(true)
+                .build();
+    }
+}
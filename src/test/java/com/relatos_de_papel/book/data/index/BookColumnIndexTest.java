@@ -0,0 +1,61 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.data.model.Book;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class BookColumnIndexTest {
+
+    private final CompactCatalogue catalogue = new CompactCatalogue();
+    private final BookColumnIndex index = new BookColumnIndex(catalogue);
+
+    @Test
+    void filtersRangesAndPagesBySortField() {
+        catalogue.index(book(1, "12.50", 300, 4, LocalDate.of(1967, 5, 30)));
+        catalogue.index(book(2, "9.99", 120, 5, null));
+        catalogue.index(book(3, "12.50", 450, 3, LocalDate.of(1985, 1, 1)));
+        catalogue.index(book(4, "30.00", 800, 5, LocalDate.of(2004, 3, 1)));
+        catalogue.index(book(5, "5.00", 90, 2, LocalDate.of(1999, 9, 9)));
+
+        BookQuery byPrice = BookQuery.builder().sort("price").minPrice(new BigDecimal("9.99"))
+                .maxPrice(new BigDecimal("12.50")).build();
+        assertArrayEquals(new long[]{2, 1, 3}, index.query(null, byPrice, null, 10));
+        // Cursor en un empate de precio: el ID desempata
+        assertArrayEquals(new long[]{3}, index.query(null, byPrice, 1L, 10));
+
+        BookQuery byScoreDesc = BookQuery.builder().sort("reviewScore").direction("desc").minPages(100).build();
+        assertArrayEquals(new long[]{4, 2}, index.query(null, byScoreDesc, null, 2));
+        assertArrayEquals(new long[]{1, 3}, index.query(null, byScoreDesc, 2L, 2));
+
+        // Un rango de fechas excluye las fechas nulas
+        BookQuery published = BookQuery.builder().publishedFrom(LocalDate.of(1960, 1, 1))
+                .publishedTo(LocalDate.of(2000, 1, 1)).build();
+        assertArrayEquals(new long[]{1, 3, 5}, index.query(null, published, null, 10));
+    }
+
+    @Test
+    void restrictsToCandidatesAndKeepsDeletedCursors() {
+        for (int id = 1; id <= 6; id++) {
+            catalogue.index(book(id, "10.00", 100, 3, null));
+        }
+        catalogue.remove(4L);
+
+        BookQuery byId = BookQuery.builder().build();
+        assertArrayEquals(new long[]{5, 6}, index.query(null, byId, 4L, 10));
+        assertArrayEquals(new long[]{2, 6}, index.query(RoaringBitmap.bitmapOf(2, 4, 6), byId, null, 10));
+        // Un cursor que nunca existió no corresponde a ninguna página
+        assertArrayEquals(new long[0], index.query(null, byId, 99L, 10));
+    }
+
+    private static Book book(long id, String price, int pages, int reviewScore, LocalDate published) {
+        return Book.builder().id(id).version(0L).title("Libro " + id).language("es")
+                .price(new BigDecimal(price)).numberPages(pages).reviewScore(reviewScore)
+                .publicationDate(published).categoryId(3L).authorId(4L).build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.Consts;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookFacetIndexTest {
+
+    private final BookFacetIndex index = new BookFacetIndex();
+
+    @Test
+    void matchesEachFacetAndFollowsChanges() {
+        index.index(book(1, "es", 3L, true));
+        index.index(book(2, " ES ", 3L, false));
+        index.index(book(3, "en", 4L, true));
+        index.index(book(2, "fr", 4L, false));
+        index.remove(1L);
+
+        assertEquals(List.of(), ids(index.match(Consts.LANGUAGE, "es")));
+        assertEquals(List.of(2), ids(index.match(Consts.LANGUAGE, "Fr")));
+        assertEquals(List.of(2, 3), ids(index.match(Consts.FK_ID_CATEGORY, 4L)));
+        assertEquals(List.of(3), ids(index.match(Consts.STATUS, true)));
+        assertTrue(index.match(Consts.FK_ID_CATEGORY, 3L).isEmpty());
+    }
+
+    @Test
+    void countsApplyTheOtherFacetsFilters() {
+        index.index(book(1, "es", 3L, true));
+        index.index(book(2, "es", 4L, true));
+        index.index(book(3, "en", 3L, false));
+
+        Map<String, Map<String, Long>> all = index.counts(Map.of());
+        assertEquals(Map.of("en", 1L, "es", 2L), all.get(Consts.LANGUAGE));
+        assertEquals(Map.of("3", 2L, "4", 1L), all.get(Consts.FK_ID_CATEGORY));
+
+        // El filtro por idioma no se aplica a su propia faceta
+        Map<String, Map<String, Long>> spanish = index.counts(Map.of(Consts.LANGUAGE, index.match(Consts.LANGUAGE, "es")));
+        assertEquals(Map.of("en", 1L, "es", 2L), spanish.get(Consts.LANGUAGE));
+        assertEquals(Map.of("3", 1L, "4", 1L), spanish.get(Consts.FK_ID_CATEGORY));
+        assertEquals(Map.of("true", 2L), spanish.get(Consts.STATUS));
+    }
+
+    private static Book book(long id, String language, Long categoryId, boolean status) {
+        return Book.builder().id(id).version(0L).title("Libro " + id).language(language)
+                .categoryId(categoryId).status(status).build();
+    }
+
+    private static List<Integer> ids(RoaringBitmap bitmap) {
+        return bitmap.stream().boxed().toList();
+    }
+}
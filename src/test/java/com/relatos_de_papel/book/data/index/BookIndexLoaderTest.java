@@ -0,0 +1,130 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.event.BooksCreatedEvent;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SortField;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookIndexLoaderTest {
+
+    private final CompactCatalogue catalogue = new CompactCatalogue();
+    private final BookTextIndex textIndex = new BookTextIndex(catalogue);
+    private final BookFacetIndex facetIndex = new BookFacetIndex();
+    private final BookRankingIndex rankingIndex = new BookRankingIndex();
+    // Mismo orden que en el contexto: el índice de texto antes que el catálogo
+    private final BookIndexLoader loader = new BookIndexLoader(
+            List.of(textIndex, catalogue, facetIndex, rankingIndex), catalogue, null, null, null);
+
+    @Test
+    void staleUpdateAfterDeleteDoesNotResurrectTheBook() {
+        loader.onBookChanged(BookChangedEvent.created(book(1L, 0L, "Rayuela")));
+        loader.onBookChanged(BookChangedEvent.deleted(1L));
+        // La modificación confirmada antes de la baja llega después
+        loader.onBookChanged(BookChangedEvent.updated(book(1L, 1L, "Rayuela revisada")));
+
+        assertTrue(catalogue.toBooks(List.of(1L)).isEmpty());
+        assertTrue(textIndex.match(Consts.TITLE, "rayuela", false).isEmpty());
+        assertTrue(facetIndex.match(Consts.LANGUAGE, "es").isEmpty());
+        assertTrue(rankingIndex.topByCategory(3L, SortField.PRICE, 10).isEmpty());
+        assertTrue(catalogue.isCurrent(1L, 1L));
+    }
+
+    @Test
+    void olderVersionDoesNotOverwriteANewerOne() {
+        loader.onBookChanged(BookChangedEvent.created(book(2L, 0L, "Ficciones")));
+        loader.onBookChanged(BookChangedEvent.updated(book(2L, 2L, "El Aleph")));
+        loader.onBookChanged(BookChangedEvent.updated(book(2L, 1L, "Ficciones")));
+
+        assertEquals("El Aleph", catalogue.toBooks(List.of(2L)).get(0).getTitle());
+        assertEquals(List.of(2), textIndex.match(Consts.TITLE, "aleph", false).stream().boxed().toList());
+        assertTrue(textIndex.match(Consts.TITLE, "ficciones", false).isEmpty());
+    }
+
+    @Test
+    void blockOfCreatedBooksSkipsDeletedIds() {
+        loader.onBookChanged(BookChangedEvent.deleted(2L));
+        loader.onBooksCreated(new BooksCreatedEvent(List.of(
+                book(1L, 0L, "Rayuela"), book(2L, 0L, "Ficciones"), book(3L, 0L, "Pedro Páramo"))));
+
+        assertEquals(List.of(1L, 3L), catalogue.page(null, 10).stream().map(Book::getId).toList());
+        assertEquals(List.of(1, 3), facetIndex.match(Consts.LANGUAGE, "es").stream().boxed().toList());
+        assertTrue(textIndex.match(Consts.TITLE, "ficciones", false).isEmpty());
+        assertEquals(List.of(3), textIndex.match(Consts.TITLE, "páramo", false).stream().boxed().toList());
+    }
+
+    @Test
+    void idsThatDoNotFitDisableTheIndexesInsteadOfFailing() {
+        loader.onBookChanged(BookChangedEvent.created(book(1L, 0L, "Rayuela")));
+        // La baja de un ID que nunca se indexó no tiene efecto
+        loader.onBookChanged(BookChangedEvent.deleted(5_000_000_000L));
+        assertNull(loader.getDisabledReason());
+
+        loader.onBookChanged(BookChangedEvent.created(book(5_000_000_000L, 0L, "Ficciones")));
+        assertNotNull(loader.getDisabledReason());
+        assertEquals(0, catalogue.size());
+        assertFalse(catalogue.isReady());
+
+        // Desactivados, los cambios posteriores no se aplican
+        loader.onBookChanged(BookChangedEvent.created(book(2L, 0L, "El Aleph")));
+        assertEquals(0, catalogue.size());
+    }
+
+    @Test
+    void sparseIdsDisableTheIndexes() {
+        loader.onBookChanged(BookChangedEvent.created(book(1L, 0L, "Rayuela")));
+        loader.onBookChanged(BookChangedEvent.created(book(1L << 30, 0L, "Ficciones")));
+
+        assertNotNull(loader.getDisabledReason());
+        assertTrue(textIndex.match(Consts.TITLE, "rayuela", false).isEmpty());
+    }
+
+    @Test
+    void concurrentUpdatesOfTheSameBookKeepTheTextIndexConsistent() throws Exception {
+        int threads = 4;
+        int versions = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                writers.add(executor.submit(() -> {
+                    for (long version = first; version < versions; version += threads) {
+                        loader.onBookChanged(BookChangedEvent.updated(book(3L, version, "Edición " + version + " de la novela " + version * 7919)));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Book current = catalogue.toBooks(List.of(3L)).get(0);
+        assertEquals(versions - 1, current.getVersion());
+        // Ningún trigrama del texto vigente se ha retirado por una escritura simultánea
+        assertEquals(List.of(3), textIndex.match(Consts.TITLE, current.getTitle(), false).stream().boxed().toList());
+    }
+
+    private static Book book(long id, long version, String title) {
+        return Book.builder().id(id).version(version).title(title).language("es").isbn("isbn-" + id)
+                .numberPages(100).price(new BigDecimal("12.30")).categoryId(3L).authorId(4L)
+                .reviewScore(4).status(true).build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.SortField;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookRankingIndexTest {
+
+    private final BookRankingIndex index = new BookRankingIndex();
+
+    @Test
+    void ranksByScoreThenTiebreakAndFollowsChanges() {
+        index.index(book(1, 0, 5, "20.00", LocalDate.of(2001, 1, 1), 7L, "ES", true));
+        index.index(book(2, 0, 5, "10.00", LocalDate.of(1990, 1, 1), 7L, "es", true));
+        index.index(book(3, 0, 4, "5.00", LocalDate.of(2020, 1, 1), 7L, "en", true));
+        index.index(book(4, 0, 5, "1.00", null, 7L, "es", false));   // inactivo
+
+        assertEquals(List.of(2L, 1L, 3L), index.topByCategory(7L, SortField.PRICE, 10));
+        assertEquals(List.of(1L, 2L), index.topByCategory(7L, SortField.PUBLICATION_DATE, 2));
+        assertEquals(List.of(2L, 1L), index.topByLanguage(" Es ", SortField.PRICE, 10));
+
+        // Sube la puntuación y cambia de idioma; una versión anterior que llega tarde no lo deshace
+        index.index(book(3, 2, 5, "5.00", LocalDate.of(2020, 1, 1), 7L, "es", true));
+        index.index(book(3, 1, 1, "5.00", LocalDate.of(2020, 1, 1), 7L, "en", true));
+        assertEquals(List.of(3L, 2L, 1L), index.topByCategory(7L, SortField.PRICE, 10));
+        assertEquals(List.of(), index.topByLanguage("en", SortField.PRICE, 10));
+
+        index.remove(2L);
+        index.index(book(1, 1, 5, "20.00", LocalDate.of(2001, 1, 1), 8L, "es", true));
+        assertEquals(List.of(3L), index.topByCategory(7L, SortField.PRICE, 10));
+        assertEquals(List.of(1L), index.topByCategory(8L, SortField.PRICE, 10));
+
+        // Una modificación anterior a la baja o a la desactivación que llega tarde no los devuelve al ranking
+        index.index(book(2, 1, 5, "10.00", LocalDate.of(1990, 1, 1), 7L, "es", true));
+        index.index(book(3, 3, 5, "5.00", LocalDate.of(2020, 1, 1), 7L, "es", false));
+        index.index(book(3, 2, 5, "5.00", LocalDate.of(2020, 1, 1), 7L, "es", true));
+        assertEquals(List.of(), index.topByCategory(7L, SortField.PRICE, 10));
+    }
+
+    /**
+     * Varios hilos modifican y eliminan los mismos libros con versiones crecientes aplicadas en cualquier
+     * orden (también modificaciones que llegan después de la baja), mientras otros leen los rankings.
+     * Al terminar, cada ranking debe coincidir con ordenar desde cero la última versión de cada libro
+     * que no se haya eliminado.
+     */
+    @Test
+    void staysConsistentUnderConcurrentWrites() throws Exception {
+        int books = 200;
+        AtomicLong[] versions = new AtomicLong[books];
+        for (int i = 0; i < books; i++) {
+            versions[i] = new AtomicLong();
+        }
+        Map<Long, Book> latest = new ConcurrentHashMap<>();
+        Set<Long> deleted = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            writers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int op = 0; op < 20_000; op++) {
+                    int id = random.nextInt(books);
+                    if (random.nextInt(100) == 0) {
+                        deleted.add(id + 1L);
+                        index.remove(id + 1L);
+                        continue;
+                    }
+                    Book book = book(id + 1, versions[id].incrementAndGet(), random.nextInt(6),
+                            random.nextInt(1, 5) + ".00", LocalDate.of(2000 + random.nextInt(3), 1, 1),
+                            (long) random.nextInt(3), random.nextBoolean() ? "es" : "en", random.nextInt(10) > 0);
+                    latest.merge(book.getId(), book, (a, b) -> a.getVersion() > b.getVersion() ? a : b);
+                    index.index(book);
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    List<Long> top = index.topByLanguage("es", SortField.PRICE, 20);
+                    assertTrue(top.size() <= 20);
+                    assertEquals(top.size(), new HashSet<>(top).size());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(1, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        for (long category = 0; category < 3; category++) {
+            long c = category;
+            assertEquals(expected(latest, b -> b.getCategoryId() == c && !deleted.contains(b.getId()), priceOrder()),
+                    index.topByCategory(c, SortField.PRICE, books));
+        }
+        assertTrue(deleted.size() > 0);
+        assertEquals(expected(latest, b -> b.getLanguage().equals("es") && !deleted.contains(b.getId()), dateOrder()),
+                index.topByLanguage("es", SortField.PUBLICATION_DATE, books));
+    }
+
+    private static List<Long> expected(Map<Long, Book> books, java.util.function.Predicate<Book> group,
+                                       Comparator<Book> order) {
+        return books.values().stream().filter(Book::isStatus).filter(group).sorted(order).map(Book::getId).toList();
+    }
+
+    private static Comparator<Book> priceOrder() {
+        return Comparator.comparingInt(Book::getReviewScore).reversed()
+                .thenComparing(Book::getPrice).thenComparing(Book::getId);
+    }
+
+    private static Comparator<Book> dateOrder() {
+        return Comparator.comparingInt(Book::getReviewScore).reversed()
+                .thenComparing(Book::getPublicationDate, Comparator.reverseOrder()).thenComparing(Book::getId);
+    }
+
+    private static Book book(long id, long version, int score, String price, LocalDate published,
+                             Long categoryId, String language, boolean status) {
+        return Book.builder().id(id).version(version).title("Libro " + id).language(language)
+                .numberPages(100).price(new BigDecimal(price)).publicationDate(published)
+                .categoryId(categoryId).authorId(1L).image("img").reviewScore(score).status(status).build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.controller.model.BookQuery;
+import com.relatos_de_papel.book.data.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactCatalogueTest {
+
+    private final CompactCatalogue catalogue = new CompactCatalogue();
+
+    @Test
+    void materializesTheSameBookThatWasIndexed() {
+        Book book = book(5L, "https://cdn.relatos.es/portadas/rayuela.png");
+        book.setDescription("Novela de Cortázar");
+        book.setPublicationDate(LocalDate.of(1963, 6, 28));
+        book.setLastModified(Instant.parse("2025-01-02T03:04:05.123456Z"));
+        catalogue.index(book);
+        catalogue.index(book(6L, "sin-prefijo.png"));
+
+        List<Book> books = catalogue.toBooks(List.of(6L, 99L, 5L));
+        assertEquals(2, books.size());
+        assertEquals(book.toString(), books.get(1).toString());
+        assertEquals("sin-prefijo.png", books.get(0).getImage());
+    }
+
+    @Test
+    void updatesRemovesAndPagesById() {
+        for (long id = 1; id <= 10; id++) {
+            catalogue.index(book(id, "https://cdn.relatos.es/portadas/" + id + ".png"));
+        }
+        Book renamed = book(3L, "https://cdn.relatos.es/portadas/3.png");
+        renamed.setTitle("Título nuevo");
+        catalogue.index(renamed);
+        catalogue.remove(4L);
+
+        List<Book> page = catalogue.page(2L, 3);
+        assertEquals(List.of(3L, 5L, 6L), page.stream().map(Book::getId).toList());
+        assertEquals("Título nuevo", page.get(0).getTitle());
+
+        List<String> languages = new ArrayList<>();
+        catalogue.forEach(view -> languages.add(view.getLanguage()));
+        assertEquals(9, languages.size());
+        assertTrue(languages.stream().allMatch("es"::equals));
+    }
+
+    @Test
+    void textAndColumnIndexesReadTheCatalogue() {
+        // Mismo orden que BookIndexLoader: el índice de texto antes que el catálogo
+        BookTextIndex textIndex = new BookTextIndex(catalogue);
+        BookColumnIndex columnIndex = new BookColumnIndex(catalogue);
+        for (long id = 1; id <= 3; id++) {
+            Book book = book(id, "img.png");
+            textIndex.index(book);
+            catalogue.index(book);
+        }
+        Book renamed = book(2L, "img.png");
+        renamed.setTitle("Rayuela");
+        renamed.setPrice(new BigDecimal("5.00"));
+        textIndex.index(renamed);
+        catalogue.index(renamed);
+        textIndex.remove(3L);
+        catalogue.remove(3L);
+        catalogue.markReady();
+
+        assertEquals(List.of(2), textIndex.match("title", "RAYU", true).stream().boxed().toList());
+        assertEquals(List.of(1), textIndex.match("title", "libro", false).stream().boxed().toList());
+        BookQuery byPrice = BookQuery.builder().sort("price").maxPrice(new BigDecimal("10")).build();
+        assertEquals(2L, columnIndex.query(null, byPrice, null, 10)[0]);
+        // El ID eliminado sigue valiendo como cursor
+        BookQuery byIdDescending = BookQuery.builder().sort("id").direction("desc").build();
+        assertEquals(2, columnIndex.query(null, byIdDescending, 3L, 10).length);
+    }
+
+    @Test
+    void onlyAcceptsIdsThatKeepTheArraysDense() {
+        assertTrue(catalogue.fits((1L << 20) - 1));
+        assertFalse(catalogue.fits(1L << 20));
+        assertFalse(catalogue.fits(-1L));
+        assertFalse(catalogue.fits(5_000_000_000L));
+        // Un ID fuera de rango nunca está indexado: solo su baja está reflejada
+        assertTrue(catalogue.isCurrent(5_000_000_000L, null));
+        assertFalse(catalogue.isCurrent(5_000_000_000L, 0L));
+
+        for (long id = 1; id <= 300_000; id++) {
+            catalogue.remove(id);
+        }
+        assertTrue(catalogue.fits(1_199_999L));
+        assertFalse(catalogue.fits(1_200_001L));
+    }
+
+    private static Book book(long id, String image) {
+        return Book.builder().id(id).version(2L).title("Libro " + id).language("es").isbn("isbn-" + id)
+                .numberPages(100).price(new BigDecimal("12.30")).categoryId(3L).authorId(4L)
+                .image(image).reviewScore(4).status(id % 2 == 0).build();
+    }
+}
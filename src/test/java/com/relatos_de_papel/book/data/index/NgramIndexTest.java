@@ -0,0 +1,69 @@
+package com.relatos_de_papel.book.data.index;
+
+import com.relatos_de_papel.book.data.model.Book;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NgramIndexTest {
+
+    private final CompactCatalogue catalogue = new CompactCatalogue();
+    private final NgramIndex index = new NgramIndex(catalogue, CompactCatalogue.TextField.TITLE);
+
+    @Test
+    void matchesSubstringsAndPrefixesIgnoringCase() {
+        put(1, "Cien años de soledad");
+        put(2, "El amor en los tiempos del cólera");
+        put(3, "Crónica de una muerte anunciada");
+
+        assertEquals(List.of(1, 3), ids(index.match("DE ", false)));
+        assertEquals(List.of(2), ids(index.match("tiempos", false)));
+        assertEquals(List.of(1), ids(index.match("cien", true)));
+        assertTrue(index.match("años", true).isEmpty());
+        // Más corto que un trigrama: se verifican todos los textos
+        assertEquals(List.of(1, 3), ids(index.match("c", true)));
+        assertTrue(index.match("xyz", false).isEmpty());
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceTheIndexedText() {
+        put(1, "Pedro Páramo");
+        put(2, "El llano en llamas");
+        put(1, "El gallo de oro");
+        index.remove(2);
+        catalogue.remove(2L);
+
+        assertTrue(index.match("páramo", false).isEmpty());
+        assertEquals(List.of(1), ids(index.match("gallo", false)));
+        assertEquals(List.of(1), ids(index.match("el ", true)));
+        assertTrue(index.match("llamas", false).isEmpty());
+    }
+
+    @Test
+    void keepsTheGramsSharedWithThePreviousText() {
+        put(1, "La casa verde");
+        put(1, "La casa de los espíritus");
+        assertEquals(List.of(1), ids(index.match("casa", false)));
+        assertTrue(index.match("verde", false).isEmpty());
+        put(1, null);
+
+        assertTrue(index.match("casa", false).isEmpty());
+        put(1, "Casa tomada");
+        assertEquals(List.of(1), ids(index.match("casa", true)));
+    }
+
+    /** Mismo orden que BookIndexLoader: primero el índice (lee el texto anterior), después el catálogo */
+    private void put(int id, String title) {
+        index.put(id, title);
+        catalogue.index(Book.builder().id((long) id).version(0L).title(title).language("es")
+                .categoryId(3L).authorId(4L).build());
+    }
+
+    private static List<Integer> ids(RoaringBitmap bitmap) {
+        return bitmap.stream().boxed().toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.relatos_de_papel.book.data.repository;
+
+import com.relatos_de_papel.book.config.CacheConfig;
+import com.relatos_de_papel.book.data.cache.BookCacheInvalidator;
+import com.relatos_de_papel.book.data.event.BookChangedEvent;
+import com.relatos_de_papel.book.data.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relleno de la caché de libros frente a escrituras concurrentes: un libro leído antes de que se
+ * confirme una escritura no queda en la caché después de la invalidación.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookRepositoryCacheTest {
+
+    @Mock
+    private BookJpaRepository jpaRepository;
+
+    // Acción a ejecutar justo antes de guardar en la caché (simula una invalidación en ese instante)
+    private Runnable beforePut = () -> { };
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS_CACHE) {
+        @Override
+        protected Cache createConcurrentMapCache(String name) {
+            return new ConcurrentMapCache(name) {
+                @Override
+                public void put(Object key, Object value) {
+                    beforePut.run();
+                    super.put(key, value);
+                }
+            };
+        }
+    };
+    private final BookCacheInvalidator invalidator = new BookCacheInvalidator(cacheManager);
+    private BookRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Solo intervienen el repositorio JPA y la caché; el resto de dependencias no se usan en estas lecturas
+        Constructor<?> constructor = BookRepository.class.getConstructors()[0];
+        Object[] args = Arrays.stream(constructor.getParameterTypes())
+                .map(type -> type == BookJpaRepository.class ? jpaRepository
+                        : type == CacheManager.class ? cacheManager
+                        : type == BookCacheInvalidator.class ? invalidator : null)
+                .toArray();
+        repository = (BookRepository) constructor.newInstance(args);
+    }
+
+    @Test
+    void readsAreCachedWhenNothingChanges() {
+        when(jpaRepository.findById(7L)).thenReturn(Optional.of(book(1)));
+
+        assertEquals(1L, repository.getById(7L).getVersion());
+        assertEquals(1L, repository.getById(7L).getVersion());
+        verify(jpaRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void rowReadBeforeACommitIsNotCached() {
+        // El lector lee la fila anterior; la escritura se confirma (e invalida) antes de que la guarde
+        when(jpaRepository.findById(7L))
+                .thenAnswer(invocation -> {
+                    invalidator.onBookChanged(BookChangedEvent.updated(book(2)));
+                    return Optional.of(book(1));
+                })
+                .thenReturn(Optional.of(book(2)));
+
+        assertEquals(1L, repository.getById(7L).getVersion());
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(7L));
+        assertEquals(2L, repository.getById(7L).getVersion());
+    }
+
+    @Test
+    void invalidationBetweenCheckAndPutEvictsTheEntry() {
+        when(jpaRepository.findById(7L)).thenReturn(Optional.of(book(1))).thenReturn(Optional.of(book(2)));
+        beforePut = () -> {
+            beforePut = () -> { };
+            invalidator.invalidate(7L);
+        };
+
+        assertEquals(1L, repository.getById(7L).getVersion());
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(7L));
+        assertEquals(2L, repository.getById(7L).getVersion());
+    }
+
+    @Test
+    void notFoundReadDuringACreateIsNotCached() {
+        // Lote: el 7 aún no existe al leerlo, pero su alta se confirma antes de guardar la entrada negativa
+        Book other = Book.builder().id(8L).version(0L).title("Otro").build();
+        when(jpaRepository.findAllById(List.of(7L, 8L)))
+                .thenAnswer(invocation -> {
+                    invalidator.onBookChanged(BookChangedEvent.created(book(0)));
+                    return List.of(other);
+                });
+        when(jpaRepository.findAllById(List.of(7L))).thenReturn(List.of(book(0)));
+
+        assertEquals(Map.of(8L, other), repository.getByIds(List.of(7L, 8L)));
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(7L));
+        assertEquals(other, cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(8L).get());
+        assertEquals(0L, repository.getByIds(List.of(7L, 8L)).get(7L).getVersion());
+    }
+
+    private static Book book(long version) {
+        return Book.builder().id(7L).version(version).title("Libro").build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.relatos_de_papel.book.data.repository;
+
+import com.relatos_de_papel.book.controller.model.BookSummary;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.Consts;
+import com.relatos_de_papel.book.data.utils.SearchCriteria;
+import com.relatos_de_papel.book.data.utils.SearchOperation;
+import com.relatos_de_papel.book.data.utils.SearchStatement;
+import com.relatos_de_papel.book.data.utils.SortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Las consultas compiladas por forma devuelven lo mismo que la especificación Criteria equivalente,
+ * y los rangos de la especificación comparan con el tipo de cada atributo.
+ */
+@SpringBootTest
+class BookSearchQueriesTest {
+
+    @Autowired
+    private BookSearchQueries searchQueries;
+
+    @Autowired
+    private BookJpaRepository repository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void compiledQueriesMatchTheCriteriaSpecification() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            books.add(Book.builder().title("Plan " + i).language(i % 2 == 0 ? "es" : "en").isbn("plan-" + i)
+                    .numberPages(100 + i).price(new BigDecimal(10 + i % 4)).categoryId(1L).authorId(1L)
+                    .image("img").reviewScore(i % 5).status(true)
+                    .publicationDate(i % 3 == 0 ? null : LocalDate.of(2000 + i, 1, 1)).build());
+        }
+        bookRepository.insertAll(books);
+
+        SearchCriteria<Book> spec = new SearchCriteria<>();
+        spec.add(new SearchStatement(Consts.TITLE, "PLAN", SearchOperation.MATCH));
+        spec.add(new SearchStatement(Consts.PRICE, new BigDecimal(11), SearchOperation.GREATER_THAN_EQUAL));
+
+        // Primera página y siguiente, ordenando por ID
+        List<Book> first = searchQueries.findPage(Book.class, spec, SortField.ID, false, null, null, 4);
+        assertEquals(ids(expected(spec, Sort.by(Consts.ID), 4, null)), ids(first));
+        Long after = first.get(3).getId();
+        assertEquals(ids(expected(spec, Sort.by(Consts.ID), 100, after)).subList(0, 4),
+                ids(searchQueries.findPage(Book.class, spec, SortField.ID, false, after, null, 4)));
+
+        // La vista reducida se proyecta en la consulta, con los mismos valores
+        assertEquals(first.stream().map(BookSummary::of).toList(),
+                searchQueries.findPage(BookSummary.class, spec, SortField.ID, false, null, null, 4));
+
+        // Orden descendente por fecha recorriendo todas las páginas (incluidas las fechas NULL)
+        Sort byDate = Sort.by(Sort.Direction.DESC, Consts.PUBLICATION_DATE).and(Sort.by(Sort.Direction.DESC, Consts.ID));
+        List<Long> walked = new ArrayList<>();
+        Book cursor = null;
+        while (true) {
+            List<Book> page = searchQueries.findPage(Book.class, spec, SortField.PUBLICATION_DATE, true,
+                    cursor == null ? null : cursor.getId(), cursor == null ? null : cursor.getPublicationDate(), 2);
+            if (page.isEmpty()) {
+                break;
+            }
+            walked.addAll(ids(page));
+            cursor = page.get(page.size() - 1);
+        }
+        assertEquals(ids(expected(spec, byDate, 100, null)), walked);
+
+        // Dentro de un bloque de IDs candidatos; la misma forma se compila una sola vez
+        List<Long> candidates = ids(books).subList(2, 9);
+        int shapes = searchQueries.size();
+        List<Book> within = searchQueries.findWithin(Book.class, spec, candidates, 100);
+        assertEquals(ids(expected(spec, Sort.by(Consts.ID), 100, null)).stream().filter(candidates::contains).toList(),
+                ids(within));
+        searchQueries.findWithin(Book.class, spec, candidates.subList(0, 3), 100);
+        assertEquals(shapes + 1, searchQueries.size());
+    }
+
+    @Test
+    void rangeValuesAreConvertedToTheAttributeType() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            books.add(Book.builder().title("Rango " + i).language("es").isbn("rango-" + i)
+                    .numberPages(100 + i).price(new BigDecimal(10 + i)).categoryId(1L).authorId(1L)
+                    .image("img").reviewScore(3).status(true).publicationDate(LocalDate.of(2000 + i, 1, 1)).build());
+        }
+        bookRepository.insertAll(books);
+
+        // Entero para un precio, texto para páginas y fecha: se comparan como número y fecha
+        SearchCriteria<Book> spec = new SearchCriteria<>();
+        spec.add(new SearchStatement(Consts.TITLE, "rango", SearchOperation.MATCH));
+        spec.add(new SearchStatement(Consts.PRICE, 11, SearchOperation.GREATER_THAN));
+        spec.add(new SearchStatement(Consts.NUMBER_PAGES, "104", SearchOperation.LESS_THAN_EQUAL));
+        spec.add(new SearchStatement(Consts.PUBLICATION_DATE, "2003-01-01", SearchOperation.GREATER_THAN_EQUAL));
+        assertEquals(ids(books.subList(3, 5)), ids(repository.findAll(spec, Sort.by(Consts.ID))));
+
+        // Un valor que no es del tipo del atributo se rechaza en lugar de compararse como cadena
+        SearchCriteria<Book> wrong = new SearchCriteria<>();
+        wrong.add(new SearchStatement(Consts.PRICE, LocalDate.of(2000, 1, 1), SearchOperation.LESS_THAN));
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = builder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        assertThrows(IllegalArgumentException.class, () -> wrong.toPredicate(root, query, builder));
+    }
+
+    private List<Book> expected(SearchCriteria<Book> spec, Sort sort, int limit, Long after) {
+        return repository.findBy(after == null ? spec
+                        : spec.and((root, query, builder) -> builder.greaterThan(root.get(Consts.ID), after)),
+                query -> query.sortBy(sort).limit(limit).all());
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).toList();
+    }
+}
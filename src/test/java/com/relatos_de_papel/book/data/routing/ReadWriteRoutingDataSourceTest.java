@@ -0,0 +1,120 @@
+package com.relatos_de_papel.book.data.routing;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enrutado con bases de datos H2 embebidas: cada una guarda su propio nombre en la tabla {@code node}.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    /** Réplica que se puede "apagar": deja de dar conexiones */
+    static class SwitchableDataSource extends DelegatingDataSource {
+
+        volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Conexión rechazada");
+            }
+            return super.getConnection();
+        }
+    }
+
+    private SwitchableDataSource replica0;
+    private SwitchableDataSource replica1;
+    private ReadYourWrites readYourWrites;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica0 = new SwitchableDataSource(database("replica-0"));
+        replica1 = new SwitchableDataSource(database("replica-1"));
+        readYourWrites = new ReadYourWrites(Duration.ofMillis(200));
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replica0, replica1), readYourWrites);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverReplicas() throws InterruptedException {
+        assertEquals("primary", node());
+        assertEquals("primary", readWrite.execute(status -> node()));
+
+        Set<String> nodes = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(readOnly.execute(status -> node()));
+        }
+        assertEquals(Set.of("replica-0", "replica-1"), nodes);
+
+        // Justo después de escribir se lee del primario hasta que pasa la ventana
+        readYourWrites.markWrite();
+        assertEquals("primary", readOnly.execute(status -> node()));
+        Thread.sleep(300);
+        assertEquals("replica", readOnly.execute(status -> node()).substring(0, 7));
+    }
+
+    @Test
+    void failsOverWhenReplicasAreDown() {
+        replica0.down = true;
+        for (int i = 0; i < 3; i++) {
+            assertEquals("replica-1", readOnly.execute(status -> node()));
+        }
+        assertEquals(1, routing.healthyReplicas());
+
+        replica1.down = true;
+        assertEquals("primary", readOnly.execute(status -> node()));
+        assertEquals(0, routing.healthyReplicas());
+
+        // La comprobación periódica las devuelve al servicio cuando responden
+        replica0.down = false;
+        routing.checkHealth();
+        assertEquals(1, routing.healthyReplicas());
+        assertEquals("replica-0", readOnly.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(20))");
+        jdbc.update("delete from node");
+        jdbc.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
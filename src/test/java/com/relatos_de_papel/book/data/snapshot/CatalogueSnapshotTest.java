@@ -0,0 +1,99 @@
+package com.relatos_de_papel.book.data.snapshot;
+
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.model.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogueSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryColumn() throws IOException {
+        Instant modified = Instant.parse("2025-03-01T10:15:30.123456Z");
+        Book full = Book.builder().id(42L).version(3L).lastModified(modified)
+                .title("Cien años de soledad").description("Macondo").language("es").isbn("978-84")
+                .publicationDate(LocalDate.of(1967, 5, 30)).numberPages(471).price(new BigDecimal("19.90"))
+                .categoryId(7L).authorId(9L).image("cien.png").reviewScore(5).status(true).build();
+        Book sparse = Book.builder().id(43L).version(0L)
+                .title("Sin datos").language("es").price(new BigDecimal("0.00"))
+                .categoryId(1L).authorId(1L).image("cien.png").build();
+
+        Path file = dir.resolve("catalogue.snapshot");
+        try (CatalogueSnapshot.Writer writer = CatalogueSnapshot.writer(dir)) {
+            writer.add(full).add(sparse).writeTo(file);
+        }
+        CatalogueSnapshot snapshot = CatalogueSnapshot.open(file);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(modified, snapshot.watermark());
+        Book read = snapshot.book(0);
+        assertEquals(full.toString(), read.toString());
+        Book readSparse = snapshot.book(1);
+        assertEquals(sparse.toString(), readSparse.toString());
+        assertNull(readSparse.getPublicationDate());
+        assertNull(readSparse.getLastModified());
+        assertEquals(43L, snapshot.id(1));
+    }
+
+    @Test
+    void streamsFromTheCompactCatalogueAcrossSegments() throws IOException {
+        // Segmentos de 64 bytes: las columnas y casi todas las cadenas caen en segmentos distintos
+        CompactCatalogue catalogue = new CompactCatalogue();
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            Book book = Book.builder().id(id).version(id).lastModified(Instant.parse("2025-03-01T10:15:30Z"))
+                    .title("Título número " + id).description("Descripción ".repeat((int) id)).language("es")
+                    .isbn("isbn-" + id).numberPages((int) id).price(new BigDecimal("9.95")).categoryId(2L)
+                    .authorId(3L).image("https://cdn.relatos.es/portadas/" + id + ".png").reviewScore(4)
+                    .status(id % 2 == 0).build();
+            books.add(book);
+            catalogue.index(book);
+        }
+
+        Path file = dir.resolve("catalogue.snapshot");
+        try (CatalogueSnapshot.Writer writer = CatalogueSnapshot.writer(dir)) {
+            catalogue.forEach(writer::add);
+            writer.writeTo(file);
+        }
+        CatalogueSnapshot snapshot = CatalogueSnapshot.open(file, 6);
+
+        assertEquals(50, snapshot.size());
+        for (int row = 0; row < books.size(); row++) {
+            assertEquals(books.get(row).toString(), snapshot.book(row).toString());
+        }
+    }
+
+    @Test
+    void rejectsForeignOrTruncatedFiles() throws IOException {
+        Path file = dir.resolve("catalogue.snapshot");
+        Files.write(file, new byte[100]);
+        assertThrows(IOException.class, () -> CatalogueSnapshot.open(file));
+
+        try (CatalogueSnapshot.Writer writer = CatalogueSnapshot.writer(dir)) {
+            writer.add(Book.builder().id(1L).title("t").language("es")
+                    .price(BigDecimal.ONE).categoryId(1L).authorId(1L).image("i").build()).writeTo(file);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> CatalogueSnapshot.open(file));
+        assertTrue(Files.list(dir).allMatch(p -> p.getFileName().toString().equals("catalogue.snapshot")));
+    }
+}
@@ -0,0 +1,123 @@
+package com.relatos_de_papel.book.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arnés de carga para comparar el servicio con hilos de plataforma y con hilos virtuales.
+ * No es un test: se lanza a mano contra una instancia ya arrancada con una base de datos local.
+ *
+ * <pre>
+ * # 1) Arrancar el servicio en cada modo
+ * VIRTUAL_THREADS_ENABLED=false mvn spring-boot:run
+ * VIRTUAL_THREADS_ENABLED=true  mvn spring-boot:run
+ *
+ * # 2) Lanzar la carga (URL, niveles de concurrencia, segundos por nivel)
+ * java -cp target/test-classes com.relatos_de_papel.book.load.LoadTestHarness \
+ *      http://localhost:8081/books/1 1000,2500,5000,10000 30
+ *
+ * # Tormenta de actualizaciones de precio: con un cuerpo JSON se envía PATCH en lugar de GET
+ * java -cp target/test-classes com.relatos_de_papel.book.load.LoadTestHarness \
+ *      http://localhost:8081/books/1 100,500,1000 30 '{"price": 19.99}'
+ * </pre>
+ *
+ * Por cada nivel imprime peticiones por segundo, errores, conflictos (409/412) y latencias p50/p99/máx.
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI target = URI.create(args.length > 0 ? args[0] : "http://localhost:8081/books/1");
+        int[] levels = Arrays.stream((args.length > 1 ? args[1] : "1000,2500,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30));
+        HttpRequest request = (args.length > 3)
+                ? builder.header("Content-Type", "application/merge-patch+json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(args[3])).build()
+                : builder.GET().build();
+
+        System.out.printf("%-12s %12s %8s %10s %10s %10s %10s%n",
+                "concurrency", "req/s", "errors", "conflicts", "p50 ms", "p99 ms", "max ms");
+        for (int concurrency : levels) {
+            run(client, request, concurrency, duration);
+        }
+    }
+
+    private static void run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+
+        // Un cliente por hilo virtual: cada uno mantiene una petición en vuelo hasta el final del periodo
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(pool.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            } else if (response.statusCode() == 409 || response.statusCode() == 412) {
+                                conflicts.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> worker : workers) {
+                long[] latencies = worker.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            Arrays.sort(all);
+
+            double seconds = duration.toNanos() / 1e9;
+            System.out.printf("%-12d %12.0f %8d %10d %10.1f %10.1f %10.1f%n",
+                    concurrency, all.length / seconds, errors.get(), conflicts.get(),
+                    percentile(all, 0.50), percentile(all, 0.99),
+                    all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
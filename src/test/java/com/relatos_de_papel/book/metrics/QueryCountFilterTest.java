@@ -0,0 +1,46 @@
+package com.relatos_de_papel.book.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Recuento de sentencias SQL por petición y temporizadores del repositorio.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordsStatementsPerRequestAndRepositoryTimings() throws Exception {
+        // ID que no existe: la caché no lo tiene y se consulta una vez en base de datos
+        mvc.perform(get("/books/987654321")).andExpect(status().isNotFound());
+
+        DistributionSummary statements = meterRegistry.find("books.db.statements")
+                .tag("method", "GET").tag("uri", "/books/{id}").summary();
+        assertNotNull(statements);
+        assertEquals(1, statements.count());
+        assertEquals(1.0, statements.totalAmount());
+
+        Timer getById = meterRegistry.find("books.repository").tag("method", "getById").timer();
+        assertNotNull(getById);
+        assertTrue(getById.count() >= 1);
+    }
+}
@@ -0,0 +1,105 @@
+package com.relatos_de_papel.book.service;
+
+import com.relatos_de_papel.book.BookApplication;
+import com.relatos_de_papel.book.controller.model.BookDto;
+import com.relatos_de_papel.book.controller.model.CreateBookRequest;
+import com.relatos_de_papel.book.data.cache.CatalogueVersion;
+import com.relatos_de_papel.book.data.index.BookRankingIndex;
+import com.relatos_de_papel.book.data.index.CompactCatalogue;
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.utils.SortField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos instancias sobre la misma base de datos (H2): lo que escribe una llega a los índices, las cachés
+ * y la versión del catálogo de la otra a través del outbox.
+ */
+class BookChangeReplayerTest {
+
+    private ConfigurableApplicationContext writer;
+    private ConfigurableApplicationContext reader;
+
+    @AfterEach
+    void stop() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void writesOnOneInstanceReachTheOther() {
+        writer = start("create-drop");
+        reader = start("none");
+        BookService writes = writer.getBean(BookService.class);
+        BookService reads = reader.getBean(BookService.class);
+        CompactCatalogue readerCatalogue = reader.getBean(CompactCatalogue.class);
+        CatalogueVersion readerVersion = reader.getBean(CatalogueVersion.class);
+        BookChangeFeed changeFeed = writer.getBean(BookChangeFeed.class);
+        awaitTrue(() -> readerCatalogue.isReady() && writer.getBean(CompactCatalogue.class).isReady());
+        long offset = changeFeed.latestOffset();
+        long version = readerVersion.current();
+
+        // Alta: llega a los índices del lector y sube su versión del catálogo
+        Book created = writes.createBook(CreateBookRequest.builder().title("Replicado").language("es")
+                .isbn("replica-1").numberPages(100).price(new BigDecimal("10.00")).categoryId(42L).authorId(1L)
+                .image("img").reviewScore(5).status(true).build());
+        String id = String.valueOf(created.getId());
+        BookRankingIndex readerRanking = reader.getBean(BookRankingIndex.class);
+        awaitTrue(() -> readerVersion.current() > version);
+        assertEquals(List.of(created.getId()), readerRanking.topByCategory(42L, SortField.PRICE, 10));
+
+        // Modificación: el lector tiene el libro en su caché y deja de servir la versión anterior
+        assertEquals(new BigDecimal("10.00"), reads.getBook(id).getPrice());
+        writes.updateBook(id, BookDto.builder().price(new BigDecimal("20.00")).build(), null);
+        awaitTrue(() -> new BigDecimal("20.00").equals(reads.getBook(id).getPrice()));
+        assertEquals(new BigDecimal("20.00"), readerCatalogue.toBooks(List.of(created.getId())).get(0).getPrice());
+
+        // Baja
+        assertTrue(writes.removeBook(id));
+        awaitTrue(() -> reads.getBook(id) == null);
+        assertTrue(readerCatalogue.toBooks(List.of(created.getId())).isEmpty());
+        assertTrue(readerRanking.topByCategory(42L, SortField.PRICE, 10).isEmpty());
+
+        // Los cambios replicados no se vuelven a escribir en el outbox
+        assertEquals(3, changeFeed.read(offset, 100).size());
+        assertTrue(reader.getBean(BookChangeReplayer.class).replayed() >= 3);
+    }
+
+    private static ConfigurableApplicationContext start(String ddl) {
+        return new SpringApplicationBuilder(BookApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.jmx.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:replicated;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=" + ddl,
+                "--books.changes.poll-interval=100ms");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("La condición no se cumplió a tiempo");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.relatos_de_papel.book.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatos_de_papel.book.data.model.Book;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookMergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void appliesOnlyTouchedFields() throws IOException {
+        Book book = book();
+        read("{\"price\": 12.5, \"description\": null, \"publicationDate\": \"2001-02-03\", \"unknown\": {\"a\": [1]}}")
+                .applyTo(book);
+
+        assertEquals(new BigDecimal("12.5"), book.getPrice());
+        assertNull(book.getDescription());
+        assertEquals(LocalDate.of(2001, 2, 3), book.getPublicationDate());
+        assertEquals("Rayuela", book.getTitle());
+        assertEquals(4, book.getReviewScore());
+    }
+
+    @Test
+    void rejectsInvalidValuesAndIdChanges() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> read("{\"reviewScore\": 9}"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"title\": null}"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"numberPages\": \"mil\"}"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"id\": 8}"));
+        assertThrows(IllegalArgumentException.class, () -> read("[]"));
+        assertThrows(IOException.class, () -> read("{\"title\": "));
+        assertTrue(read("{\"id\": 7}").isEmpty());
+    }
+
+    private BookMergePatch read(String json) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            return BookMergePatch.read(parser, 7L, validator);
+        }
+    }
+
+    private static Book book() {
+        return Book.builder().id(7L).title("Rayuela").description("Novela").language("es")
+                .price(BigDecimal.TEN).categoryId(1L).authorId(2L).image("r.png")
+                .numberPages(600).reviewScore(4).status(true).build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.relatos_de_papel.book.service;
+
+import com.relatos_de_papel.book.data.model.Book;
+import com.relatos_de_papel.book.data.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceImplTest {
+
+    @Mock
+    private BookRepository repository;
+
+    @InjectMocks
+    private BookServiceImpl service;
+
+    @Test
+    void concurrentIdenticalLookupsShareOneRepositoryCall() throws Exception {
+        int callers = 32;
+        Book book = Book.builder().id(7L).title("Rayuela").build();
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.getById(7L)).thenAnswer(invocation -> {
+            release.await();
+            return book;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Book>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> service.getBook("7")));
+            }
+
+            // Se libera la consulta cuando el resto de llamadas ya está esperando su resultado
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (service.bookLoads.coalesced() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Book> result : results) {
+                assertSame(book, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(repository, times(1)).getById(7L);
+        assertEquals(callers - 1, service.bookLoads.coalesced());
+    }
+
+    @Test
+    void sequentialLookupsAreNotCoalesced() {
+        Book book = Book.builder().id(7L).title("Rayuela").build();
+        when(repository.getById(7L)).thenReturn(book);
+
+        service.getBook("7");
+        service.getBook("7");
+
+        verify(repository, times(2)).getById(7L);
+        assertEquals(0, service.bookLoads.coalesced());
+    }
+}